@@ -9,13 +9,11 @@ import com.google.protobuf.CodedInputStream;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import lombok.Setter;
-import org.apache.commons.lang3.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.ReflectionUtils;
 
 import java.lang.reflect.Field;
-import java.util.Arrays;
 
 import static cn.ledgeryi.common.core.exception.P2pException.TypeEnum.PROTOBUF_ERROR;
 
@@ -34,6 +32,7 @@ public abstract class Message {
 
   protected byte[] data;
   protected byte type;
+  private volatile Sha256Hash messageId;
 
   public Message() {
   }
@@ -65,12 +64,23 @@ public abstract class Message {
     return dynamicPropertiesStore.getAllowProtoFilterNum() == 1;
   }
 
+  /**
+   * the type byte and the payload as one composite buffer, the payload is not copied.
+   */
   public ByteBuf getSendData() {
-    return Unpooled.wrappedBuffer(ArrayUtils.add(this.getData(), 0, type));
+    return Unpooled.wrappedBuffer(new byte[]{type}, this.getData());
   }
 
+  /**
+   * hashed once, equals and hashCode go by the id.
+   */
   public Sha256Hash getMessageId() {
-    return Sha256Hash.of(DBConfig.isEccCryptoEngine(), getData());
+    Sha256Hash id = messageId;
+    if (id == null) {
+      id = Sha256Hash.of(DBConfig.isEccCryptoEngine(), getData());
+      messageId = id;
+    }
+    return id;
   }
 
   public byte[] getData() {
@@ -90,7 +100,7 @@ public abstract class Message {
 
   @Override
   public int hashCode() {
-    return Arrays.hashCode(data);
+    return getMessageId().hashCode();
   }
 
   @Override
@@ -102,7 +112,7 @@ public abstract class Message {
       return false;
     }
     Message message = (Message) o;
-    return Arrays.equals(data, message.data);
+    return type == message.type && getMessageId().equals(message.getMessageId());
   }
 
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package cn.ledgeryi.chainbase.common.storage.leveldb;
 import cn.ledgeryi.chainbase.common.storage.WriteOptionsWrapper;
 import cn.ledgeryi.chainbase.common.utils.DBConfig;
 import cn.ledgeryi.chainbase.core.db.common.DbSourceInter;
+import cn.ledgeryi.chainbase.core.db.common.WriteBatchInter;
 import cn.ledgeryi.chainbase.core.db.common.iterator.StoreIterator;
 import cn.ledgeryi.chainbase.core.db2.common.Instance;
 import cn.ledgeryi.common.utils.FileUtil;
@@ -24,6 +25,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.function.Consumer;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Stream;
@@ -387,6 +389,40 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
     }
   }
 
+  private void updateByBatchInner(Consumer<WriteBatchInter<byte[], byte[]>> rows, WriteOptions options)
+      throws Exception {
+    try (WriteBatch batch = database.createWriteBatch()) {
+      rows.accept(new WriteBatchInter<byte[], byte[]>() {
+        @Override
+        public void put(byte[] key, byte[] value) {
+          batch.put(key, value);
+        }
+
+        @Override
+        public void delete(byte[] key) {
+          batch.delete(key);
+        }
+      });
+      database.write(batch, options);
+    }
+  }
+
+  @Override
+  public void updateByBatch(Consumer<WriteBatchInter<byte[], byte[]>> rows, WriteOptionsWrapper options) {
+    resetDbLock.readLock().lock();
+    try {
+      updateByBatchInner(rows, options.level);
+    } catch (Exception e) {
+      try {
+        updateByBatchInner(rows, options.level);
+      } catch (Exception e1) {
+        throw new RuntimeException(e);
+      }
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
   @Override
   public void updateByBatch(Map<byte[], byte[]> rows) {
     resetDbLock.readLock().lock();
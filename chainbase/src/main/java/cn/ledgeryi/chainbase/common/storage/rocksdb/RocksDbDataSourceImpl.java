@@ -2,6 +2,7 @@ package cn.ledgeryi.chainbase.common.storage.rocksdb;
 
 import cn.ledgeryi.chainbase.common.storage.WriteOptionsWrapper;
 import cn.ledgeryi.chainbase.core.db.common.DbSourceInter;
+import cn.ledgeryi.chainbase.core.db.common.WriteBatchInter;
 import cn.ledgeryi.chainbase.core.db.common.iterator.DBIterator;
 import cn.ledgeryi.chainbase.core.db.common.iterator.RockStoreIterator;
 import cn.ledgeryi.chainbase.core.db2.common.Instance;
@@ -18,6 +19,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -262,6 +264,32 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
     return null;
   }
 
+  /**
+   * values of the keys that exist, looked up with one multi-get. the result is keyed by the
+   * given key arrays.
+   */
+  public Map<byte[], byte[]> getDataBatch(List<byte[]> keys) {
+    if (quitIfNotAlive()) {
+      return Collections.emptyMap();
+    }
+    resetDbLock.readLock().lock();
+    try {
+      return database.multiGet(keys);
+    } catch (RocksDBException e) {
+      log.error("RocksDBException: {}", e);
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+    Map<byte[], byte[]> result = new HashMap<>();
+    for (byte[] key : keys) {
+      byte[] value = getData(key);
+      if (value != null) {
+        result.put(key, value);
+      }
+    }
+    return result;
+  }
+
   @Override
   public void deleteData(byte[] key) {
     if (quitIfNotAlive()) {
@@ -339,6 +367,54 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
     }
   }
 
+  private void updateByBatchInner(Consumer<WriteBatchInter<byte[], byte[]>> rows, WriteOptions options)
+      throws Exception {
+    if (quitIfNotAlive()) {
+      return;
+    }
+    try (WriteBatch batch = new WriteBatch()) {
+      rows.accept(new WriteBatchInter<byte[], byte[]>() {
+        @Override
+        public void put(byte[] key, byte[] value) {
+          try {
+            batch.put(key, value);
+          } catch (Exception e) {
+            throw new RuntimeException(e);
+          }
+        }
+
+        @Override
+        public void delete(byte[] key) {
+          try {
+            batch.delete(key);
+          } catch (Exception e) {
+            throw new RuntimeException(e);
+          }
+        }
+      });
+      database.write(options, batch);
+    }
+  }
+
+  @Override
+  public void updateByBatch(Consumer<WriteBatchInter<byte[], byte[]>> rows, WriteOptionsWrapper optionsWrapper) {
+    if (quitIfNotAlive()) {
+      return;
+    }
+    resetDbLock.readLock().lock();
+    try {
+      updateByBatchInner(rows, optionsWrapper.rocks);
+    } catch (Exception e) {
+      try {
+        updateByBatchInner(rows, optionsWrapper.rocks);
+      } catch (Exception e1) {
+        throw new RuntimeException(e);
+      }
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
   @Override
   public void updateByBatch(Map<byte[], byte[]> rows) {
     if (quitIfNotAlive()) {
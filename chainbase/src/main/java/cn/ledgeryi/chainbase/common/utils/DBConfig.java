@@ -102,6 +102,13 @@ public class DBConfig {
     return outputDirectoryConfig;
   }
 
+  public static long getReadCacheSizeByDbName(String dbName) {
+    if (hasProperty(dbName)) {
+      return getProperty(dbName).getReadCacheSize();
+    }
+    return 0;
+  }
+
   public static Options getOptionsByDbName(String dbName) {
     if (hasProperty(dbName)) {
       return getProperty(dbName).getDbOptions();
@@ -17,4 +17,11 @@ public class Property {
   @Getter
   @Setter
   private Options dbOptions;
+
+  /**
+   * max entries of the in-process read cache, 0 means disabled.
+   */
+  @Getter
+  @Setter
+  private long readCacheSize;
 }
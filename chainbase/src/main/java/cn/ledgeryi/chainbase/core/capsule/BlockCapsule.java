@@ -35,10 +35,24 @@ import org.apache.commons.lang3.ArrayUtils;
 public class BlockCapsule implements ProtoCapsule<Block> {
 
   public boolean generatedByMyself = false;
+  /**
+   * the master signature, merkle root and transaction signatures were already checked, pushBlock
+   * skips them.
+   */
+  @Getter
+  @Setter
+  private volatile boolean preVerified = false;
   @Getter
   @Setter
   private TransactionRetCapsule result;
   private BlockId blockId = new BlockId(Sha256Hash.ZERO_HASH, 0);
+  /**
+   * memoized header hash, merkle root and serialized bytes of the current block,
+   * dropped by every mutation.
+   */
+  private Sha256Hash rawHash;
+  private Sha256Hash merkleRoot;
+  private byte[] data;
 
   private Block block;
   private List<TransactionCapsule> transactions = new ArrayList<>();
@@ -112,6 +126,23 @@ public class BlockCapsule implements ProtoCapsule<Block> {
   public void addTransaction(TransactionCapsule pendingTx) {
     this.block = this.block.toBuilder().addTransactions(pendingTx.getInstance()).build();
     getTransactions().add(pendingTx);
+    this.merkleRoot = null;
+    this.data = null;
+  }
+
+  /**
+   * adds the transactions with one rebuild of the block, adding them one by one copies the
+   * transaction list every time.
+   */
+  public void addTransactions(List<TransactionCapsule> pendingTxs) {
+    Block.Builder builder = this.block.toBuilder();
+    for (TransactionCapsule pendingTx : pendingTxs) {
+      builder.addTransactions(pendingTx.getInstance());
+    }
+    this.block = builder.build();
+    getTransactions().addAll(pendingTxs);
+    this.merkleRoot = null;
+    this.data = null;
   }
 
   public List<TransactionCapsule> getTransactions() {
@@ -131,10 +162,23 @@ public class BlockCapsule implements ProtoCapsule<Block> {
     ByteString sig = ByteString.copyFrom(ecKeyEngine.Base64toBytes(ecKeyEngine.signHash(getRawHash().getBytes())));
     BlockHeader blockHeader = this.block.getBlockHeader().toBuilder().setMasterSignature(sig).build();
     this.block = this.block.toBuilder().setBlockHeader(blockHeader).build();
+    this.data = null;
   }
 
   private Sha256Hash getRawHash() {
-    return Sha256Hash.of(DBConfig.isEccCryptoEngine(), this.block.getBlockHeader().getRawData().toByteArray());
+    if (rawHash == null) {
+      rawHash = Sha256Hash.of(DBConfig.isEccCryptoEngine(), this.block.getBlockHeader().getRawData().toByteArray());
+    }
+    return rawHash;
+  }
+
+  /**
+   * drop the memoized values derived from the block header raw data.
+   */
+  private void clearHeaderCache() {
+    this.rawHash = null;
+    this.blockId = new BlockId(Sha256Hash.ZERO_HASH, 0);
+    this.data = null;
   }
 
   public boolean validateSignature(DynamicPropertiesStore dynamicPropertiesStore, AccountStore accountStore)
@@ -152,13 +196,15 @@ public class BlockCapsule implements ProtoCapsule<Block> {
 
   public BlockId getBlockId() {
     if (blockId.equals(Sha256Hash.ZERO_HASH)) {
-      blockId = new BlockId(Sha256Hash.of(DBConfig.isEccCryptoEngine(), this.block.getBlockHeader().getRawData().toByteArray()),
-          getNum());
+      blockId = new BlockId(getRawHash(), getNum());
     }
     return blockId;
   }
 
   public Sha256Hash calcMerkleRoot() {
+    if (merkleRoot != null) {
+      return merkleRoot;
+    }
     List<Transaction> transactionsList = this.block.getTransactionsList();
 
     if (CollectionUtils.isEmpty(transactionsList)) {
@@ -170,7 +216,8 @@ public class BlockCapsule implements ProtoCapsule<Block> {
         .map(TransactionCapsule::getMerkleHash)
         .collect(Collectors.toCollection(Vector::new));
 
-    return MerkleTree.getInstance().createTree(ids).getRoot().getHash();
+    merkleRoot = MerkleTree.getInstance().createTree(ids).getRoot().getHash();
+    return merkleRoot;
   }
 
   public void setMerkleRoot() {
@@ -180,6 +227,7 @@ public class BlockCapsule implements ProtoCapsule<Block> {
 
     this.block = this.block.toBuilder().setBlockHeader(
         this.block.getBlockHeader().toBuilder().setRawData(blockHeaderRaw)).build();
+    clearHeaderCache();
   }
 
   public void setAccountStateRoot(byte[] root) {
@@ -189,6 +237,7 @@ public class BlockCapsule implements ProtoCapsule<Block> {
 
     this.block = this.block.toBuilder().setBlockHeader(
         this.block.getBlockHeader().toBuilder().setRawData(blockHeaderRaw)).build();
+    clearHeaderCache();
   }
 
   /* only for genisis */
@@ -199,6 +248,7 @@ public class BlockCapsule implements ProtoCapsule<Block> {
 
     this.block = this.block.toBuilder().setBlockHeader(
         this.block.getBlockHeader().toBuilder().setRawData(blockHeaderRaw)).build();
+    clearHeaderCache();
   }
 
   public Sha256Hash getMerkleRoot() {
@@ -217,9 +267,15 @@ public class BlockCapsule implements ProtoCapsule<Block> {
     return this.block.getBlockHeader().getRawData().getMasterAddress();
   }
 
+  /**
+   * the returned array is shared with later callers and must not be modified.
+   */
   @Override
   public byte[] getData() {
-    return this.block.toByteArray();
+    if (data == null) {
+      data = this.block.toByteArray();
+    }
+    return data;
   }
 
   @Override
@@ -53,6 +53,12 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
   @Getter
   @Setter
   private long time;
+  /**
+   * memoized identity of the current transaction, dropped by every mutation.
+   */
+  private Sha256Hash id;
+  private Sha256Hash merkleHash;
+  private byte[] data;
 
   /**
    * constructor TransactionCapsule.
@@ -171,6 +177,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
   public void setResult(TransactionResultCapsule transactionResultCapsule) {
     this.transaction = this.getInstance().toBuilder().addRet(transactionResultCapsule.getInstance())
         .build();
+    clearSerializedCache();
   }
 
   public void setReference(long blockNum, byte[] blockHash) {
@@ -180,6 +187,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
         .setRefBlockBytes(ByteString.copyFrom(ByteArray.subArray(refBlockNum, 6, 8)))
         .build();
     this.transaction = this.transaction.toBuilder().setRawData(rawData).build();
+    clearCache();
   }
 
   public long getExpiration() {
@@ -189,6 +197,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
   public void setExpiration(long expiration) {
     Transaction.raw rawData = this.transaction.getRawData().toBuilder().setExpiration(expiration).build();
     this.transaction = this.transaction.toBuilder().setRawData(rawData).build();
+    clearCache();
   }
 
   public void setTimestamp() {
@@ -196,6 +205,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
         .setTimestamp(System.currentTimeMillis())
         .build();
     this.transaction = this.transaction.toBuilder().setRawData(rawData).build();
+    clearCache();
   }
 
   public long getTimestamp() {
@@ -207,22 +217,44 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
     Transaction.raw.Builder transactionBuilder = Transaction.raw.newBuilder().setContract(
         Transaction.Contract.newBuilder().setType(contractType).setParameter(Any.pack(message)).build());
     transaction = Transaction.newBuilder().setRawData(transactionBuilder.build()).build();
+    clearCache();
   }
 
   public Sha256Hash getMerkleHash() {
-    byte[] transBytes = this.transaction.toByteArray();
-    return Sha256Hash.of(DBConfig.isEccCryptoEngine(), transBytes);
+    if (merkleHash == null) {
+      merkleHash = Sha256Hash.of(DBConfig.isEccCryptoEngine(), getData());
+    }
+    return merkleHash;
   }
 
   private Sha256Hash getRawHash() {
-    return Sha256Hash.of(DBConfig.isEccCryptoEngine(),
-        this.transaction.getRawData().toByteArray());
+    if (id == null) {
+      id = Sha256Hash.of(DBConfig.isEccCryptoEngine(), this.transaction.getRawData().toByteArray());
+    }
+    return id;
+  }
+
+  /**
+   * drop every memoized value, used when raw data changes.
+   */
+  private void clearCache() {
+    this.id = null;
+    clearSerializedCache();
+  }
+
+  /**
+   * drop the memoized bytes and merkle hash, used when only signature or ret changes.
+   */
+  private void clearSerializedCache() {
+    this.merkleHash = null;
+    this.data = null;
   }
 
   public void sign(byte[] privateKey) {
     SignInterface cryptoEngine = SignUtils.fromPrivate(privateKey, DBConfig.isEccCryptoEngine());
     ByteString sig = ByteString.copyFrom(cryptoEngine.Base64toBytes(cryptoEngine.signHash(getRawHash().getBytes())));
     this.transaction = this.transaction.toBuilder().setSignature(sig).build();
+    clearSerializedCache();
   }
 
   /**
@@ -255,9 +287,15 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
     return getRawHash();
   }
 
+  /**
+   * the returned array is shared with later callers and must not be modified.
+   */
   @Override
   public byte[] getData() {
-    return this.transaction.toByteArray();
+    if (data == null) {
+      data = this.transaction.toByteArray();
+    }
+    return data;
   }
 
   public long getSerializedSize() {
@@ -301,9 +339,11 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
     if (this.transaction.getRetCount() > 0) {
       ret = this.transaction.getRet(0).toBuilder().setContractRet(code).build();
       this.transaction = transaction.toBuilder().setRet(0, ret).build();
+      clearSerializedCache();
       return;
     }
     this.transaction = transaction.toBuilder().addRet(ret).build();
+    clearSerializedCache();
   }
 
   public ContractResult getContractRet() {
@@ -17,7 +17,7 @@ public class BlockIndexStore extends LedgerYiStoreWithRevoking<BytesCapsule> {
 
   @Autowired
   public BlockIndexStore(@Value("block-index") String dbName) {
-    super(dbName);
+    super(dbName, BytesCapsule::new);
   }
 
   public void put(BlockId id) {
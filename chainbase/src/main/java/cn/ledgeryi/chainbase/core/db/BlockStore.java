@@ -19,7 +19,7 @@ public class BlockStore extends LedgerYiStoreWithRevoking<BlockCapsule> {
 
   @Autowired
   private BlockStore(@Value("block") String dbName) {
-    super(dbName);
+    super(dbName, BlockCapsule::new);
   }
 
   public List<BlockCapsule> getLimitNumber(long startNumber, long limit) {
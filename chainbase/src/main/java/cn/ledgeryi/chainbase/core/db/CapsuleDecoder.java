@@ -0,0 +1,12 @@
+package cn.ledgeryi.chainbase.core.db;
+
+import cn.ledgeryi.common.core.exception.BadItemException;
+
+/**
+ * Decode the serialized value of a store into its capsule, usually a capsule constructor reference.
+ */
+@FunctionalInterface
+public interface CapsuleDecoder<T> {
+
+  T decode(byte[] data) throws BadItemException;
+}
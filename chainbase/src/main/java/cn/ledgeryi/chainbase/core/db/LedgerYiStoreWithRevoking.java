@@ -8,6 +8,7 @@ import cn.ledgeryi.chainbase.core.db2.common.DB;
 import cn.ledgeryi.chainbase.core.db2.common.IRevokingDB;
 import cn.ledgeryi.chainbase.core.db2.common.LevelDB;
 import cn.ledgeryi.chainbase.core.db2.common.RocksDB;
+import cn.ledgeryi.chainbase.core.db2.common.WrappedByteArray;
 import cn.ledgeryi.chainbase.core.db2.core.Chainbase;
 import cn.ledgeryi.chainbase.core.db2.core.ILedgerYiBase;
 import cn.ledgeryi.chainbase.core.db2.core.RevokingDBWithCachingOldValue;
@@ -17,16 +18,15 @@ import cn.ledgeryi.common.core.exception.ItemNotFoundException;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
-import com.google.common.reflect.TypeToken;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.iq80.leveldb.WriteOptions;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import javax.annotation.PostConstruct;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
@@ -36,13 +36,13 @@ import java.util.Objects;
 public abstract class LedgerYiStoreWithRevoking<T extends ProtoCapsule> implements ILedgerYiBase<T> {
 
   protected IRevokingDB revokingDB;
-  private TypeToken<T> token = new TypeToken<T>(getClass()) {
-  };
+  private final CapsuleDecoder<T> decoder;
 
   @Autowired
   private RevokingDatabase revokingDatabase;
 
-  protected LedgerYiStoreWithRevoking(String dbName) {
+  protected LedgerYiStoreWithRevoking(String dbName, CapsuleDecoder<T> decoder) {
+    this.decoder = decoder;
     int dbVersion = DBConfig.getDbVersion();
     String dbEngine = DBConfig.getDbEngine();
     if (dbVersion == 1) {
@@ -65,7 +65,8 @@ public abstract class LedgerYiStoreWithRevoking<T extends ProtoCapsule> implemen
     }
   }
 
-  protected LedgerYiStoreWithRevoking(DB<byte[], byte[]> db) {
+  protected LedgerYiStoreWithRevoking(DB<byte[], byte[]> db, CapsuleDecoder<T> decoder) {
+    this.decoder = decoder;
     int dbVersion = DBConfig.getDbVersion();
     if (dbVersion == 2) {
       this.revokingDB = new Chainbase(new SnapshotRoot(db));
@@ -114,13 +115,25 @@ public abstract class LedgerYiStoreWithRevoking<T extends ProtoCapsule> implemen
     }
   }
 
+  /**
+   * the items of the keys that exist, read together instead of one lookup per key.
+   */
+  public Map<WrappedByteArray, T> getBatch(Collection<byte[]> keys) {
+    Map<WrappedByteArray, T> result = new HashMap<>();
+    revokingDB.getBatch(keys).forEach((key, value) -> {
+      try {
+        result.put(key, of(value));
+      } catch (BadItemException e) {
+        log.warn("bad item in {}: {}", getName(), e.getMessage());
+      }
+    });
+    return result;
+  }
+
   public T of(byte[] value) throws BadItemException {
     try {
-      Constructor constructor = token.getRawType().getConstructor(byte[].class);
-      @SuppressWarnings("unchecked")
-      T t = (T) constructor.newInstance((Object) value);
-      return t;
-    } catch (NoSuchMethodException | IllegalAccessException | InstantiationException | InvocationTargetException e) {
+      return decoder.decode(value);
+    } catch (RuntimeException e) {
       throw new BadItemException(e.getMessage());
     }
   }
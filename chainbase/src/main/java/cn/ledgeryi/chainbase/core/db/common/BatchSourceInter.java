@@ -3,6 +3,7 @@ package cn.ledgeryi.chainbase.core.db.common;
 import cn.ledgeryi.chainbase.common.storage.WriteOptionsWrapper;
 
 import java.util.Map;
+import java.util.function.Consumer;
 
 
 public interface BatchSourceInter<K, V> extends SourceInter<K, V> {
@@ -10,4 +11,10 @@ public interface BatchSourceInter<K, V> extends SourceInter<K, V> {
   void updateByBatch(Map<K, V> rows);
 
   void updateByBatch(Map<K, V> rows, WriteOptionsWrapper writeOptions);
+
+  /**
+   * stream rows straight into one native write batch, without collecting them in a map first.
+   * the consumer may be invoked again if the first write fails.
+   */
+  void updateByBatch(Consumer<WriteBatchInter<K, V>> rows, WriteOptionsWrapper writeOptions);
 }
@@ -0,0 +1,11 @@
+package cn.ledgeryi.chainbase.core.db.common;
+
+/**
+ * Rows of one native write batch, applied in the order they are added.
+ */
+public interface WriteBatchInter<K, V> {
+
+  void put(K key, V value);
+
+  void delete(K key);
+}
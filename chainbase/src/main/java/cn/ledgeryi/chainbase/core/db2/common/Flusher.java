@@ -1,10 +1,14 @@
 package cn.ledgeryi.chainbase.core.db2.common;
 
-import java.util.Map;
+import cn.ledgeryi.chainbase.core.db.common.WriteBatchInter;
+import java.util.function.Consumer;
 
 public interface Flusher {
 
-  void flush(Map<WrappedByteArray, WrappedByteArray> batch);
+  /**
+   * write the rows produced by the consumer as one batch, a null value deletes the key.
+   */
+  void flush(Consumer<WriteBatchInter<byte[], byte[]>> rows);
 
   void close();
 
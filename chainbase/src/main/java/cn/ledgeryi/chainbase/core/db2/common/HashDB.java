@@ -1,12 +1,13 @@
 package cn.ledgeryi.chainbase.core.db2.common;
 
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class HashDB implements DB<Key, Value> {
 
-  private Map<Key, Value> db = new HashMap<>();
+  // read by lock-free readers of Chainbase while the head snapshot is written
+  private Map<Key, Value> db = new ConcurrentHashMap<>();
   private String name;
 
   public HashDB(String name) {
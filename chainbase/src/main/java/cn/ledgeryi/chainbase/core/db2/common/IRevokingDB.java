@@ -1,5 +1,7 @@
 package cn.ledgeryi.chainbase.core.db2.common;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -17,6 +19,20 @@ public interface IRevokingDB extends Iterable<Map.Entry<byte[], byte[]>> {
 
   byte[] getUnchecked(byte[] key);
 
+  /**
+   * values of the keys that exist, keys without a value are absent from the result.
+   */
+  default Map<WrappedByteArray, byte[]> getBatch(Collection<byte[]> keys) {
+    Map<WrappedByteArray, byte[]> result = new HashMap<>();
+    for (byte[] key : keys) {
+      byte[] value = getUnchecked(key);
+      if (value != null) {
+        result.put(WrappedByteArray.of(key), value);
+      }
+    }
+    return result;
+  }
+
   void close();
 
   void reset();
@@ -4,9 +4,8 @@ import cn.ledgeryi.chainbase.core.db.common.iterator.DBIterator;
 import cn.ledgeryi.chainbase.common.storage.WriteOptionsWrapper;
 import cn.ledgeryi.chainbase.common.storage.leveldb.LevelDbDataSourceImpl;
 import cn.ledgeryi.chainbase.common.utils.DBConfig;
-import com.google.common.collect.Maps;
-import java.util.HashMap;
-import java.util.Map;
+import cn.ledgeryi.chainbase.core.db.common.WriteBatchInter;
+import java.util.function.Consumer;
 import lombok.Getter;
 
 public class LevelDB implements DB<byte[], byte[]>, Flusher {
@@ -56,10 +55,7 @@ public class LevelDB implements DB<byte[], byte[]>, Flusher {
   }
 
   @Override
-  public void flush(Map<WrappedByteArray, WrappedByteArray> batch) {
-    Map<byte[], byte[]> rows = batch.entrySet().stream()
-        .map(e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue().getBytes()))
-        .collect(HashMap::new, (m, k) -> m.put(k.getKey(), k.getValue()), HashMap::putAll);
+  public void flush(Consumer<WriteBatchInter<byte[], byte[]>> rows) {
     db.updateByBatch(rows, writeOptions);
   }
 
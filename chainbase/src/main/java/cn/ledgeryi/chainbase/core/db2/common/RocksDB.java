@@ -4,9 +4,11 @@ import cn.ledgeryi.chainbase.common.storage.WriteOptionsWrapper;
 import cn.ledgeryi.chainbase.common.storage.rocksdb.RocksDbDataSourceImpl;
 import cn.ledgeryi.chainbase.common.utils.DBConfig;
 import cn.ledgeryi.chainbase.core.db.common.iterator.DBIterator;
-import com.google.common.collect.Maps;
+import cn.ledgeryi.chainbase.core.db.common.WriteBatchInter;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import lombok.Getter;
 
 public class RocksDB implements DB<byte[], byte[]>, Flusher {
@@ -26,6 +28,12 @@ public class RocksDB implements DB<byte[], byte[]>, Flusher {
     return db.getData(key);
   }
 
+  public Map<WrappedByteArray, byte[]> getBatch(List<byte[]> keys) {
+    Map<WrappedByteArray, byte[]> result = new HashMap<>();
+    db.getDataBatch(keys).forEach((key, value) -> result.put(WrappedByteArray.of(key), value));
+    return result;
+  }
+
   @Override
   public void put(byte[] key, byte[] value) {
     db.putData(key, value);
@@ -57,10 +65,7 @@ public class RocksDB implements DB<byte[], byte[]>, Flusher {
   }
 
   @Override
-  public void flush(Map<WrappedByteArray, WrappedByteArray> batch) {
-    Map<byte[], byte[]> rows = batch.entrySet().stream()
-        .map(e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue().getBytes()))
-        .collect(HashMap::new, (m, k) -> m.put(k.getKey(), k.getValue()), HashMap::putAll);
+  public void flush(Consumer<WriteBatchInter<byte[], byte[]>> rows) {
     db.updateByBatch(rows, optionsWrapper);
   }
 
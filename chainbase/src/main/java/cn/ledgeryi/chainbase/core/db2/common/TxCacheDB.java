@@ -1,76 +1,269 @@
 package cn.ledgeryi.chainbase.core.db2.common;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Iterators;
+import cn.ledgeryi.chainbase.core.db.common.WriteBatchInter;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
 import com.google.common.primitives.Longs;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.Map;
+import java.util.List;
 import java.util.Map.Entry;
-import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Transaction id -> block number for the latest {@link #BLOCK_COUNT} blocks.
+ *
+ * <p>Ids live in an open-addressed table of primitive longs, four words per 32-byte id, and
+ * every block owns a bucket in a ring indexed by {@code blockNum % BLOCK_COUNT} holding the
+ * 8-byte prefixes of its ids. When the highest block moves forward the buckets that fell out
+ * of the window are dropped, so expiry only depends on the blocks written.
+ */
 @Slf4j(topic = "DB")
 public class TxCacheDB implements DB<byte[], byte[]>, Flusher {
 
   // > 65_536(= 2^16) blocks, that is the number of the reference block
-  private final int BLOCK_COUNT = 70_000;
+  public static final int BLOCK_COUNT = 70_000;
 
-  private Map<Key, Long> db = new WeakHashMap<>();
-  private Multimap<Long, Key> blockNumMap = ArrayListMultimap.create();
-  private String name;
+  private static final int ID_LENGTH = 32;
+  private static final int WORDS = ID_LENGTH / Long.BYTES;
+  private static final int INITIAL_CAPACITY = 1 << 16;
+  private static final int INITIAL_BUCKET_SIZE = 4;
+  private static final long EMPTY = -1L;
+
+  private final String name;
+
+  // id table, slot i holds words [i * WORDS, (i + 1) * WORDS) and blockNums[i]
+  private long[] ids;
+  private long[] blockNums;
+  private int mask;
+  private int size;
+
+  // block ring, bucket i holds the id prefixes of block bucketBlocks[i]
+  private final long[] bucketBlocks = new long[BLOCK_COUNT];
+  private final long[][] buckets = new long[BLOCK_COUNT][];
+  private final int[] bucketSizes = new int[BLOCK_COUNT];
+  private long maxBlockNum = EMPTY;
 
   public TxCacheDB(String name) {
     this.name = name;
+    init();
+  }
+
+  private void init() {
+    ids = new long[INITIAL_CAPACITY * WORDS];
+    blockNums = new long[INITIAL_CAPACITY];
+    Arrays.fill(blockNums, EMPTY);
+    mask = INITIAL_CAPACITY - 1;
+    size = 0;
+    Arrays.fill(bucketBlocks, EMPTY);
+    Arrays.fill(buckets, null);
+    Arrays.fill(bucketSizes, 0);
+    maxBlockNum = EMPTY;
   }
 
   @Override
-  public byte[] get(byte[] key) {
-    Long v = db.get(Key.of(key));
-    return v == null ? null : Longs.toByteArray(v);
+  public synchronized byte[] get(byte[] key) {
+    if (key == null || key.length != ID_LENGTH) {
+      return null;
+    }
+    int slot = find(key);
+    return slot < 0 ? null : Longs.toByteArray(blockNums[slot]);
   }
 
   @Override
-  public void put(byte[] key, byte[] value) {
+  public synchronized void put(byte[] key, byte[] value) {
     if (key == null || value == null) {
       return;
     }
+    if (key.length != ID_LENGTH) {
+      throw new IllegalArgumentException("transaction id must be " + ID_LENGTH + " bytes");
+    }
+
+    long blockNum = Longs.fromByteArray(value);
+    if (maxBlockNum != EMPTY && blockNum <= maxBlockNum - BLOCK_COUNT) {
+      return;
+    }
+    if (blockNum > maxBlockNum) {
+      advance(blockNum);
+    }
+
+    int slot = find(key);
+    if (slot >= 0) {
+      if (blockNums[slot] == blockNum) {
+        return;
+      }
+      blockNums[slot] = blockNum;
+    } else {
+      insert(key, blockNum);
+    }
+    addToBucket(blockNum, word(key, 0));
+  }
+
+  /**
+   * drop every bucket older than the window ending at blockNum.
+   */
+  private void advance(long blockNum) {
+    long from = Math.max(maxBlockNum + 1, blockNum - BLOCK_COUNT + 1);
+    for (long n = from; n <= blockNum; n++) {
+      int index = (int) (n % BLOCK_COUNT);
+      if (bucketBlocks[index] != EMPTY && bucketBlocks[index] < n) {
+        evict(index);
+      }
+    }
+    maxBlockNum = blockNum;
+  }
+
+  private void evict(int index) {
+    long blockNum = bucketBlocks[index];
+    long[] prefixes = buckets[index];
+    int count = bucketSizes[index];
+    for (int i = 0; i < count; i++) {
+      int slot = findByPrefix(prefixes[i], blockNum);
+      if (slot >= 0) {
+        delete(slot);
+      }
+    }
+    bucketBlocks[index] = EMPTY;
+    buckets[index] = null;
+    bucketSizes[index] = 0;
+    log.debug("evict block number:{}, txs:{}, cache size:{}", blockNum, count, size);
+  }
 
-    Key k = Key.copyOf(key);
-    Long v = Longs.fromByteArray(value);
-    blockNumMap.put(v, k);
-    db.put(k, v);
-    removeEldest();
+  private void addToBucket(long blockNum, long prefix) {
+    int index = (int) (blockNum % BLOCK_COUNT);
+    if (bucketBlocks[index] != blockNum) {
+      if (bucketBlocks[index] != EMPTY) {
+        evict(index);
+      }
+      bucketBlocks[index] = blockNum;
+      buckets[index] = new long[INITIAL_BUCKET_SIZE];
+    }
+    long[] prefixes = buckets[index];
+    int count = bucketSizes[index];
+    if (count == prefixes.length) {
+      prefixes = Arrays.copyOf(prefixes, count << 1);
+      buckets[index] = prefixes;
+    }
+    prefixes[count] = prefix;
+    bucketSizes[index] = count + 1;
   }
 
-  private void removeEldest() {
-    Set<Long> keys = blockNumMap.keySet();
-    if (keys.size() > BLOCK_COUNT) {
-      keys.stream()
-          .min(Long::compareTo)
-          .ifPresent(k -> {
-            blockNumMap.removeAll(k);
-            log.debug("******removeEldest block number:{}, block count:{}", k, keys.size());
-          });
+  private int find(byte[] key) {
+    long w0 = word(key, 0);
+    long w1 = word(key, 1);
+    long w2 = word(key, 2);
+    long w3 = word(key, 3);
+    for (int slot = hash(w0); blockNums[slot] != EMPTY; slot = (slot + 1) & mask) {
+      int base = slot * WORDS;
+      if (ids[base] == w0 && ids[base + 1] == w1 && ids[base + 2] == w2 && ids[base + 3] == w3) {
+        return slot;
+      }
     }
+    return -1;
+  }
+
+  private int findByPrefix(long prefix, long blockNum) {
+    for (int slot = hash(prefix); blockNums[slot] != EMPTY; slot = (slot + 1) & mask) {
+      if (ids[slot * WORDS] == prefix && blockNums[slot] == blockNum) {
+        return slot;
+      }
+    }
+    return -1;
+  }
+
+  private void insert(byte[] key, long blockNum) {
+    if ((size + 1) * 3L > (mask + 1) * 2L) {
+      resize((mask + 1) << 1);
+    }
+    int slot = hash(word(key, 0));
+    while (blockNums[slot] != EMPTY) {
+      slot = (slot + 1) & mask;
+    }
+    int base = slot * WORDS;
+    for (int i = 0; i < WORDS; i++) {
+      ids[base + i] = word(key, i);
+    }
+    blockNums[slot] = blockNum;
+    size++;
+  }
+
+  /**
+   * backward shift deletion, keeps every probe chain free of holes.
+   */
+  private void delete(int slot) {
+    int hole = slot;
+    int next = (hole + 1) & mask;
+    while (blockNums[next] != EMPTY) {
+      int home = hash(ids[next * WORDS]);
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        System.arraycopy(ids, next * WORDS, ids, hole * WORDS, WORDS);
+        blockNums[hole] = blockNums[next];
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+    blockNums[hole] = EMPTY;
+    size--;
+  }
+
+  private void resize(int capacity) {
+    long[] oldIds = ids;
+    long[] oldBlockNums = blockNums;
+    ids = new long[capacity * WORDS];
+    blockNums = new long[capacity];
+    Arrays.fill(blockNums, EMPTY);
+    mask = capacity - 1;
+    for (int i = 0; i < oldBlockNums.length; i++) {
+      if (oldBlockNums[i] == EMPTY) {
+        continue;
+      }
+      int slot = hash(oldIds[i * WORDS]);
+      while (blockNums[slot] != EMPTY) {
+        slot = (slot + 1) & mask;
+      }
+      System.arraycopy(oldIds, i * WORDS, ids, slot * WORDS, WORDS);
+      blockNums[slot] = oldBlockNums[i];
+    }
+  }
+
+  private int hash(long prefix) {
+    return (int) (prefix ^ (prefix >>> 32)) & mask;
+  }
+
+  private static long word(byte[] key, int index) {
+    int offset = index * Long.BYTES;
+    return Longs.fromBytes(key[offset], key[offset + 1], key[offset + 2], key[offset + 3],
+        key[offset + 4], key[offset + 5], key[offset + 6], key[offset + 7]);
+  }
+
+  private byte[] idAt(int slot) {
+    byte[] key = new byte[ID_LENGTH];
+    for (int i = 0; i < WORDS; i++) {
+      System.arraycopy(Longs.toByteArray(ids[slot * WORDS + i]), 0, key, i * Long.BYTES,
+          Long.BYTES);
+    }
+    return key;
   }
 
   @Override
-  public long size() {
-    return db.size();
+  public synchronized long size() {
+    return size;
   }
 
   @Override
-  public boolean isEmpty() {
-    return db.isEmpty();
+  public synchronized boolean isEmpty() {
+    return size == 0;
   }
 
   @Override
-  public void remove(byte[] key) {
-    if (key != null) {
-      db.remove(Key.of(key));
+  public synchronized void remove(byte[] key) {
+    if (key == null || key.length != ID_LENGTH) {
+      return;
+    }
+    int slot = find(key);
+    if (slot >= 0) {
+      delete(slot);
     }
   }
 
@@ -80,27 +273,39 @@ public class TxCacheDB implements DB<byte[], byte[]>, Flusher {
   }
 
   @Override
-  public Iterator<Entry<byte[], byte[]>> iterator() {
-    return Iterators.transform(db.entrySet().iterator(),
-        e -> Maps.immutableEntry(e.getKey().getBytes(), Longs.toByteArray(e.getValue())));
+  public synchronized Iterator<Entry<byte[], byte[]>> iterator() {
+    List<Entry<byte[], byte[]>> entries = new ArrayList<>(size);
+    for (int slot = 0; slot < blockNums.length; slot++) {
+      if (blockNums[slot] != EMPTY) {
+        entries.add(Maps.immutableEntry(idAt(slot), Longs.toByteArray(blockNums[slot])));
+      }
+    }
+    return entries.iterator();
   }
 
   @Override
-  public void flush(Map<WrappedByteArray, WrappedByteArray> batch) {
-    batch.forEach((k, v) -> this.put(k.getBytes(), v.getBytes()));
+  public synchronized void flush(Consumer<WriteBatchInter<byte[], byte[]>> rows) {
+    rows.accept(new WriteBatchInter<byte[], byte[]>() {
+      @Override
+      public void put(byte[] key, byte[] value) {
+        TxCacheDB.this.put(key, value);
+      }
+
+      @Override
+      public void delete(byte[] key) {
+        // entries only leave the cache by age
+      }
+    });
   }
 
   @Override
   public void close() {
     reset();
-    db = null;
-    blockNumMap = null;
   }
 
   @Override
-  public void reset() {
-    db.clear();
-    blockNumMap.clear();
+  public synchronized void reset() {
+    init();
   }
 
   @Override
@@ -12,9 +12,9 @@ public abstract class AbstractSnapshot<K, V> implements Snapshot {
   protected DB<K, V> db;
   @Getter
   @Setter
-  protected Snapshot previous;
+  protected volatile Snapshot previous;
 
-  protected WeakReference<Snapshot> next;
+  protected volatile WeakReference<Snapshot> next;
 
   @Override
   public Snapshot advance() {
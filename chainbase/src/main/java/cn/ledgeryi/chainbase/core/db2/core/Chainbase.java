@@ -1,13 +1,17 @@
 package cn.ledgeryi.chainbase.core.db2.core;
 
+import cn.ledgeryi.chainbase.core.db2.common.Key;
 import cn.ledgeryi.chainbase.core.db2.common.Value;
 import cn.ledgeryi.chainbase.core.db2.common.WrappedByteArray;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -17,10 +21,16 @@ import cn.ledgeryi.chainbase.core.db2.common.LevelDB;
 import cn.ledgeryi.chainbase.core.db2.common.RocksDB;
 import cn.ledgeryi.common.core.exception.ItemNotFoundException;
 
+/**
+ * Writers (put, delete, setHead, reset) serialize on this object, readers do not lock.
+ * head is volatile, and snapshots that are no longer the head are only merged into
+ * their predecessors with the same values, so a reader always sees a consistent view
+ * of the chain as of the head it started from.
+ */
 public class Chainbase implements IRevokingDB {
 
   private ThreadLocal<Boolean> mode = new ThreadLocal<>();
-  private Snapshot head;
+  private volatile Snapshot head;
 
   public Chainbase(Snapshot head) {
     this.head = head;
@@ -44,7 +54,7 @@ public class Chainbase implements IRevokingDB {
     }
   }
 
-  public synchronized Snapshot getHead() {
+  public Snapshot getHead() {
     return head();
   }
 
@@ -78,7 +88,7 @@ public class Chainbase implements IRevokingDB {
   }
 
   @Override
-  public synchronized byte[] get(byte[] key) throws ItemNotFoundException {
+  public byte[] get(byte[] key) throws ItemNotFoundException {
     byte[] value = getUnchecked(key);
     if (value == null) {
       throw new ItemNotFoundException();
@@ -88,17 +98,48 @@ public class Chainbase implements IRevokingDB {
   }
 
   @Override
-  public synchronized byte[] getUnchecked(byte[] key) {
+  public byte[] getUnchecked(byte[] key) {
     return head().get(key);
   }
 
+  /**
+   * one pass over the snapshots for all keys, the keys not found in any snapshot are read
+   * from the root together.
+   */
+  @Override
+  public Map<WrappedByteArray, byte[]> getBatch(Collection<byte[]> keys) {
+    Map<WrappedByteArray, byte[]> result = new HashMap<>();
+    List<byte[]> remaining = new ArrayList<>(keys);
+    Snapshot snapshot = head();
+    while (Snapshot.isImpl(snapshot) && !remaining.isEmpty()) {
+      Iterator<byte[]> iterator = remaining.iterator();
+      while (iterator.hasNext()) {
+        byte[] key = iterator.next();
+        Value value = ((SnapshotImpl) snapshot).db.get(Key.of(key));
+        if (value != null) {
+          // a deleted key is resolved as well, it just has no value
+          if (value.getBytes() != null) {
+            result.put(WrappedByteArray.of(key), value.getBytes());
+          }
+          iterator.remove();
+        }
+      }
+      snapshot = snapshot.getPrevious();
+    }
+
+    if (snapshot != null && !remaining.isEmpty()) {
+      result.putAll(((SnapshotRoot) snapshot).getBatch(remaining));
+    }
+    return result;
+  }
+
   @Override
-  public synchronized boolean has(byte[] key) {
+  public boolean has(byte[] key) {
     return getUnchecked(key) != null;
   }
 
   @Override
-  public synchronized Iterator<Map.Entry<byte[], byte[]>> iterator() {
+  public Iterator<Map.Entry<byte[], byte[]>> iterator() {
     return head().iterator();
   }
 
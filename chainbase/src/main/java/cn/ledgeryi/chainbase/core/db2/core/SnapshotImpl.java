@@ -22,11 +22,12 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
 
   SnapshotImpl(Snapshot snapshot) {
     root = snapshot.getRoot();
-    previous = snapshot;
-    snapshot.setNext(this);
     synchronized (this) {
       db = new HashDB(SnapshotImpl.class.getSimpleName());
     }
+    previous = snapshot;
+    // publish only after db is set, lock-free readers walk the chain through next
+    snapshot.setNext(this);
   }
 
   @Override
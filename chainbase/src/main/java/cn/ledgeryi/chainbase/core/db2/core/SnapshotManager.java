@@ -4,6 +4,7 @@ import cn.ledgeryi.chainbase.common.storage.WriteOptionsWrapper;
 import cn.ledgeryi.chainbase.common.utils.DBConfig;
 import cn.ledgeryi.chainbase.core.db.RevokingDatabase;
 import cn.ledgeryi.chainbase.core.db2.common.DB;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.Maps;
 import com.google.common.primitives.Bytes;
 import com.google.common.primitives.Ints;
@@ -28,7 +29,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import cn.ledgeryi.chainbase.core.db2.common.IRevokingDB;
 import cn.ledgeryi.chainbase.core.db2.common.Key;
 import cn.ledgeryi.chainbase.core.db2.common.Value;
-import cn.ledgeryi.chainbase.core.db2.common.WrappedByteArray;
 import cn.ledgeryi.common.core.exception.RevokingStoreIllegalStateException;
 import cn.ledgeryi.chainbase.core.store.CheckTmpStore;
 
@@ -54,6 +54,10 @@ public class SnapshotManager implements RevokingDatabase {
 
   private volatile int flushCount = 0;
 
+  private static final long READ_CACHE_LOG_INTERVAL = 60_000;
+
+  private long lastReadCacheLogTime = 0;
+
   private Map<String, ListeningExecutorService> flushServices = new HashMap<>();
 
   @Autowired
@@ -64,6 +68,9 @@ public class SnapshotManager implements RevokingDatabase {
   @Setter
   private volatile int maxFlushCount = DEFAULT_MIN_FLUSH_COUNT;
 
+  // keys written by the last checkpoint, deleted by the next one
+  private List<byte[]> checkpointKeys = new ArrayList<>();
+
   public SnapshotManager(String checkpointPath) {
   }
 
@@ -269,7 +276,10 @@ public class SnapshotManager implements RevokingDatabase {
       snapshots.add(next);
     }
 
-    root.merge(snapshots);
+    long start = System.currentTimeMillis();
+    long bytes = root.merge(snapshots);
+    log.debug("flush db:{}, snapshots:{}, bytes:{}, cost:{}",
+        db.getDbName(), snapshots.size(), bytes, System.currentTimeMillis() - start);
 
     root.resetSolidity();
     if (db.getHead() == next) {
@@ -287,7 +297,6 @@ public class SnapshotManager implements RevokingDatabase {
 
     if (shouldBeRefreshed()) {
       long start = System.currentTimeMillis();
-      deleteCheckpoint();
       createCheckpoint();
       long checkPointEnd = System.currentTimeMillis();
       refresh();
@@ -297,48 +306,72 @@ public class SnapshotManager implements RevokingDatabase {
           checkPointEnd - start,
           System.currentTimeMillis() - checkPointEnd
       );
+      logReadCacheStats();
     }
   }
 
-  private void createCheckpoint() {
-    Map<WrappedByteArray, WrappedByteArray> batch = new HashMap<>();
+  /**
+   * hit, miss and eviction counters of the db read caches, at most once a minute.
+   */
+  private void logReadCacheStats() {
+    long now = System.currentTimeMillis();
+    if (now - lastReadCacheLogTime < READ_CACHE_LOG_INTERVAL) {
+      return;
+    }
+    lastReadCacheLogTime = now;
     for (Chainbase db : dbs) {
-      Snapshot head = db.getHead();
-      if (Snapshot.isRoot(head)) {
+      SnapshotRoot root = (SnapshotRoot) db.getHead().getRoot();
+      CacheStats stats = root.getReadCacheStats();
+      if (stats != null) {
+        log.info("read cache db:{}, size:{}, hit rate:{}, hits:{}, misses:{}, evictions:{}",
+            db.getDbName(), root.getReadCacheSize(), String.format("%.3f", stats.hitRate()),
+            stats.hitCount(), stats.missCount(), stats.evictionCount());
+      }
+    }
+  }
+
+  /**
+   * replace the previous checkpoint with the snapshots about to be flushed, in one write batch.
+   * the previous checkpoint is dropped by deleting the keys it wrote, so the tmp store is
+   * never scanned, and later puts in the batch win over the deletes and over older snapshots.
+   */
+  private void createCheckpoint() {
+    boolean hasRoot = dbs.stream().anyMatch(db -> Snapshot.isRoot(db.getHead()));
+    List<byte[]> keys = new ArrayList<>();
+    checkTmpStore.getDbSource().updateByBatch(batch -> {
+      keys.clear();
+      checkpointKeys.forEach(batch::delete);
+      if (hasRoot) {
         return;
       }
 
-      String dbName = db.getDbName();
-      Snapshot next = head.getRoot();
-      for (int i = 0; i < flushCount; ++i) {
-        next = next.getNext();
-        SnapshotImpl snapshot = (SnapshotImpl) next;
-        DB<Key, Value> keyValueDB = snapshot.getDb();
-        for (Map.Entry<Key, Value> e : keyValueDB) {
-          Key k = e.getKey();
-          Value v = e.getValue();
-          batch.put(WrappedByteArray.of(Bytes.concat(simpleEncode(dbName), k.getBytes())),
-              WrappedByteArray.of(v.encode()));
+      for (Chainbase db : dbs) {
+        byte[] prefix = simpleEncode(db.getDbName());
+        Snapshot next = db.getHead().getRoot();
+        for (int i = 0; i < flushCount; ++i) {
+          next = next.getNext();
+          DB<Key, Value> keyValueDB = ((SnapshotImpl) next).getDb();
+          for (Map.Entry<Key, Value> e : keyValueDB) {
+            byte[] key = Bytes.concat(prefix, e.getKey().getBytes());
+            batch.put(key, e.getValue().encode());
+            keys.add(key);
+          }
         }
       }
-    }
-
-    checkTmpStore.getDbSource().updateByBatch(batch.entrySet().stream()
-        .map(e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue().getBytes()))
-        .collect(HashMap::new, (m, k) -> m.put(k.getKey(), k.getValue()), HashMap::putAll),
-        WriteOptionsWrapper.getInstance().sync(DBConfig.isDbSync()));
+    }, WriteOptionsWrapper.getInstance().sync(DBConfig.isDbSync()));
+    checkpointKeys = keys;
   }
 
+  /**
+   * delete every key of the tmp store, only needed once at startup, afterwards the keys of
+   * the current checkpoint are known.
+   */
   private void deleteCheckpoint() {
-    Map<byte[], byte[]> hmap = new HashMap<byte[], byte[]>();
-    if (!checkTmpStore.getDbSource().allKeys().isEmpty()) {
+    checkTmpStore.getDbSource().updateByBatch(batch -> {
       for (Map.Entry<byte[], byte[]> e : checkTmpStore.getDbSource()) {
-        hmap.put(e.getKey(), null);
+        batch.delete(e.getKey());
       }
-    }
-
-    checkTmpStore.getDbSource().updateByBatch(hmap, WriteOptionsWrapper.getInstance()
-        .sync(DBConfig.isDbSync()));
+    }, WriteOptionsWrapper.getInstance().sync(DBConfig.isDbSync()));
   }
 
   // ensure run this method first after process start.
@@ -375,6 +408,7 @@ public class SnapshotManager implements RevokingDatabase {
 
       dbs.forEach(db -> db.getHead().getRoot().merge(db.getHead()));
       retreat();
+      deleteCheckpoint();
     }
 
     unChecked = false;
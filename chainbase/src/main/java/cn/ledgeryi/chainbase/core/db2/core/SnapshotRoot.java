@@ -1,63 +1,197 @@
 package cn.ledgeryi.chainbase.core.db2.core;
 
+import cn.ledgeryi.chainbase.common.utils.DBConfig;
 import cn.ledgeryi.chainbase.core.db2.common.DB;
+import cn.ledgeryi.chainbase.core.db2.common.Key;
+import cn.ledgeryi.chainbase.core.db2.common.RocksDB;
+import cn.ledgeryi.chainbase.core.db2.common.Value;
 import cn.ledgeryi.chainbase.core.db2.common.WrappedByteArray;
-import com.google.common.collect.Maps;
-import com.google.common.collect.Streams;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.Getter;
 import cn.ledgeryi.chainbase.core.db2.common.Flusher;
 
 public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
 
   @Getter
-  private Snapshot solidity;
+  private volatile Snapshot solidity;
+
+  // cached value of a key that is not in the db
+  private static final byte[] TOMBSTONE = new byte[0];
+
+  /**
+   * optional read cache in front of the db, sized by storage.properties readCacheSize.
+   * every write to the db goes through this class, bumps writeGeneration and then stores the
+   * new value, or a tombstone for a delete, in the cache. a reader fills a miss only if no
+   * write started since its db read and the key is still absent, so a value read before a
+   * concurrent write never replaces the written one.
+   */
+  private Cache<WrappedByteArray, byte[]> readCache;
+
+  private final AtomicLong writeGeneration = new AtomicLong();
 
   public SnapshotRoot(DB<byte[], byte[]> db) {
     this.db = db;
     solidity = this;
+    long readCacheSize = DBConfig.getReadCacheSizeByDbName(db.getDbName());
+    if (readCacheSize > 0) {
+      readCache = CacheBuilder.newBuilder().maximumSize(readCacheSize).recordStats().build();
+    }
   }
 
   @Override
   public byte[] get(byte[] key) {
-    return db.get(key);
+    if (readCache == null) {
+      return db.get(key);
+    }
+
+    WrappedByteArray cacheKey = WrappedByteArray.of(key);
+    byte[] value = readCache.getIfPresent(cacheKey);
+    if (value == null) {
+      long generation = writeGeneration.get();
+      value = db.get(key);
+      fillReadCache(generation, key, value);
+      return value;
+    }
+    return value == TOMBSTONE ? null : value.clone();
+  }
+
+  private void fillReadCache(long generation, byte[] key, byte[] value) {
+    if (writeGeneration.get() == generation) {
+      readCache.asMap().putIfAbsent(WrappedByteArray.copyOf(key),
+          value == null ? TOMBSTONE : value.clone());
+    }
+  }
+
+  /**
+   * values of the keys that exist, the keys missing in the read cache are read from the db with
+   * one multi-get when the engine supports it.
+   */
+  public Map<WrappedByteArray, byte[]> getBatch(List<byte[]> keys) {
+    Map<WrappedByteArray, byte[]> result = new HashMap<>();
+    List<byte[]> misses = keys;
+    if (readCache != null) {
+      misses = new ArrayList<>();
+      for (byte[] key : keys) {
+        byte[] value = readCache.getIfPresent(WrappedByteArray.of(key));
+        if (value == null) {
+          misses.add(key);
+        } else if (value != TOMBSTONE) {
+          result.put(WrappedByteArray.of(key), value.clone());
+        }
+      }
+    }
+    if (misses.isEmpty()) {
+      return result;
+    }
+
+    long generation = writeGeneration.get();
+    Map<WrappedByteArray, byte[]> values;
+    if (db.getClass() == RocksDB.class) {
+      values = ((RocksDB) db).getBatch(misses);
+    } else {
+      values = new HashMap<>();
+      for (byte[] key : misses) {
+        byte[] value = db.get(key);
+        if (value != null) {
+          values.put(WrappedByteArray.of(key), value);
+        }
+      }
+    }
+    if (readCache != null) {
+      for (byte[] key : misses) {
+        fillReadCache(generation, key, values.get(WrappedByteArray.of(key)));
+      }
+    }
+    result.putAll(values);
+    return result;
   }
 
   @Override
   public void put(byte[] key, byte[] value) {
     db.put(key, value);
+    if (readCache != null) {
+      writeGeneration.incrementAndGet();
+      updateReadCache(key, value);
+    }
   }
 
   @Override
   public void remove(byte[] key) {
     db.remove(key);
+    if (readCache != null) {
+      writeGeneration.incrementAndGet();
+      updateReadCache(key, null);
+    }
   }
 
-  @Override
-  public void merge(Snapshot from) {
-    SnapshotImpl snapshot = (SnapshotImpl) from;
-    Map<WrappedByteArray, WrappedByteArray> batch = Streams.stream(snapshot.db)
-        .map(e -> Maps.immutableEntry(WrappedByteArray.of(e.getKey().getBytes()),
-            WrappedByteArray.of(e.getValue().getBytes())))
-        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-    ((Flusher) db).flush(batch);
+  private void updateReadCache(byte[] key, byte[] value) {
+    readCache.put(WrappedByteArray.copyOf(key), value == null ? TOMBSTONE : value.clone());
   }
 
-  public void merge(List<Snapshot> snapshots) {
-    Map<WrappedByteArray, WrappedByteArray> batch = new HashMap<>();
+  private void updateReadCache(List<Snapshot> snapshots) {
+    if (readCache == null) {
+      return;
+    }
+
+    writeGeneration.incrementAndGet();
     for (Snapshot snapshot : snapshots) {
-      SnapshotImpl from = (SnapshotImpl) snapshot;
-      Streams.stream(from.db)
-          .map(e -> Maps.immutableEntry(WrappedByteArray.of(e.getKey().getBytes()),
-              WrappedByteArray.of(e.getValue().getBytes())))
-          .forEach(e -> batch.put(e.getKey(), e.getValue()));
+      for (Map.Entry<Key, Value> e : ((SnapshotImpl) snapshot).db) {
+        updateReadCache(e.getKey().getBytes(), e.getValue().getBytes());
+      }
     }
+  }
+
+  /**
+   * hit, miss and eviction counters of the read cache, null when the cache is disabled.
+   */
+  public CacheStats getReadCacheStats() {
+    return readCache == null ? null : readCache.stats();
+  }
+
+  public long getReadCacheSize() {
+    return readCache == null ? 0 : readCache.size();
+  }
+
+  @Override
+  public void merge(Snapshot from) {
+    merge(Collections.singletonList(from));
+  }
 
-    ((Flusher) db).flush(batch);
+  /**
+   * write the snapshots, oldest first, into one batch of the db, later rows win in the batch.
+   * rows go straight from the snapshots into the native batch without an intermediate map.
+   *
+   * @return the number of key and value bytes written
+   */
+  public long merge(List<Snapshot> snapshots) {
+    AtomicLong bytes = new AtomicLong();
+    ((Flusher) db).flush(batch -> {
+      bytes.set(0);
+      for (Snapshot snapshot : snapshots) {
+        for (Map.Entry<Key, Value> e : ((SnapshotImpl) snapshot).db) {
+          byte[] key = e.getKey().getBytes();
+          byte[] value = e.getValue().getBytes();
+          if (value == null) {
+            batch.delete(key);
+            bytes.addAndGet(key.length);
+          } else {
+            batch.put(key, value);
+            bytes.addAndGet(key.length + value.length);
+          }
+        }
+      }
+    });
+    updateReadCache(snapshots);
+    return bytes.get();
   }
 
   @Override
@@ -83,6 +217,10 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
   @Override
   public void reset() {
     ((Flusher) db).reset();
+    if (readCache != null) {
+      writeGeneration.incrementAndGet();
+      readCache.invalidateAll();
+    }
   }
 
   @Override
@@ -22,7 +22,7 @@ public class AccountStore extends LedgerYiStoreWithRevoking<AccountCapsule> {
 
   @Autowired
   private AccountStore(@Value("account") String dbName) {
-    super(dbName);
+    super(dbName, AccountCapsule::new);
   }
 
   public static void setAccount(com.typesafe.config.Config config) {
@@ -14,7 +14,7 @@ public class CodeStore extends LedgerYiStoreWithRevoking<CodeCapsule> {
 
   @Autowired
   private CodeStore(@Value("code") String dbName) {
-    super(dbName);
+    super(dbName, CodeCapsule::new);
   }
 
   @Override
@@ -21,7 +21,7 @@ public class ContractStore extends LedgerYiStoreWithRevoking<ContractCapsule> {
 
     @Autowired
     private ContractStore(@Value("contract") String dbName) {
-        super(dbName);
+        super(dbName, ContractCapsule::new);
     }
 
     @Override
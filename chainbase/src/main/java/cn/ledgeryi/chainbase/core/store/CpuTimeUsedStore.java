@@ -12,7 +12,7 @@ public class CpuTimeUsedStore extends LedgerYiStoreWithRevoking<BytesCapsule> {
 
   @Autowired
   public CpuTimeUsedStore(@Value("cpu-time-used") String dbName) {
-    super(dbName);
+    super(dbName, BytesCapsule::new);
   }
 
   public void put(BytesCapsule bytesCapsule) {
@@ -37,7 +37,7 @@ public class DynamicPropertiesStore extends LedgerYiStoreWithRevoking<BytesCapsu
 
   @Autowired
   private DynamicPropertiesStore(@Value("properties") String dbName) {
-    super(dbName);
+    super(dbName, BytesCapsule::new);
 
     try {
       this.getLatestBlockHeaderTimestamp();
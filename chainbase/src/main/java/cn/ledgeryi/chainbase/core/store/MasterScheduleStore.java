@@ -23,7 +23,7 @@ public class MasterScheduleStore extends LedgerYiStoreWithRevoking<BytesCapsule>
 
   @Autowired
   private MasterScheduleStore(@Value("master-schedule") String dbName) {
-    super(dbName);
+    super(dbName, BytesCapsule::new);
   }
 
   private void saveData(byte[] species, List<ByteString> mastersAddressList) {
@@ -20,7 +20,7 @@ public class MasterStore extends LedgerYiStoreWithRevoking<MasterCapsule> {
 
   @Autowired
   protected MasterStore(@Value("master") String dbName) {
-    super(dbName);
+    super(dbName, MasterCapsule::new);
   }
 
   /**
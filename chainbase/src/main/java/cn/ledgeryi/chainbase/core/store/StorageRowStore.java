@@ -2,6 +2,9 @@ package cn.ledgeryi.chainbase.core.store;
 
 import cn.ledgeryi.chainbase.core.capsule.StorageRowCapsule;
 import cn.ledgeryi.chainbase.core.db.LedgerYiStoreWithRevoking;
+import cn.ledgeryi.chainbase.core.db2.common.WrappedByteArray;
+import java.util.Collection;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,7 +16,7 @@ public class StorageRowStore extends LedgerYiStoreWithRevoking<StorageRowCapsule
 
   @Autowired
   private StorageRowStore(@Value("storage-row") String dbName) {
-    super(dbName);
+    super(dbName, StorageRowCapsule::new);
   }
 
   @Override
@@ -22,4 +25,11 @@ public class StorageRowStore extends LedgerYiStoreWithRevoking<StorageRowCapsule
     row.setRowKey(key);
     return row;
   }
+
+  @Override
+  public Map<WrappedByteArray, StorageRowCapsule> getBatch(Collection<byte[]> keys) {
+    Map<WrappedByteArray, StorageRowCapsule> rows = super.getBatch(keys);
+    rows.forEach((key, row) -> row.setRowKey(key.getBytes()));
+    return rows;
+  }
 }
@@ -12,7 +12,7 @@ public class StorageUsedStore extends LedgerYiStoreWithRevoking<BytesCapsule> {
 
     @Autowired
     public StorageUsedStore(@Value("storage-used") String dbName) {
-        super(dbName);
+        super(dbName, BytesCapsule::new);
     }
 
     public void put(BytesCapsule key,BytesCapsule value) {
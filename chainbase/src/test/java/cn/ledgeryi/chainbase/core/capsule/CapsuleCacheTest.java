@@ -0,0 +1,97 @@
+package cn.ledgeryi.chainbase.core.capsule;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import cn.ledgeryi.chainbase.common.utils.DBConfig;
+import cn.ledgeryi.common.utils.Sha256Hash;
+import cn.ledgeryi.protos.Protocol.Transaction;
+import cn.ledgeryi.protos.Protocol.Transaction.Result.ContractResult;
+import com.google.protobuf.ByteString;
+import org.junit.Test;
+
+/**
+ * memoized ids, hashes and bytes of the capsules follow every mutation.
+ */
+public class CapsuleCacheTest {
+
+  @Test
+  public void transactionIdIsMemoized() {
+    TransactionCapsule tx = createTransaction("a");
+    assertSame(tx.getTransactionId(), tx.getTransactionId());
+    assertSame(tx.getMerkleHash(), tx.getMerkleHash());
+    assertSame(tx.getData(), tx.getData());
+  }
+
+  @Test
+  public void rawDataChangesDropTheId() {
+    TransactionCapsule tx = createTransaction("a");
+    Sha256Hash id = tx.getTransactionId();
+
+    tx.setExpiration(tx.getExpiration() + 1);
+    assertNotEquals(id, tx.getTransactionId());
+    assertMatchesInstance(tx);
+
+    id = tx.getTransactionId();
+    tx.setReference(7, new byte[32]);
+    assertNotEquals(id, tx.getTransactionId());
+    assertMatchesInstance(tx);
+  }
+
+  @Test
+  public void resultChangesKeepTheId() {
+    TransactionCapsule tx = createTransaction("a");
+    Sha256Hash id = tx.getTransactionId();
+    Sha256Hash merkleHash = tx.getMerkleHash();
+
+    tx.setResultCode(ContractResult.SUCCESS);
+    assertSame(id, tx.getTransactionId());
+    assertNotEquals(merkleHash, tx.getMerkleHash());
+    assertMatchesInstance(tx);
+
+    tx.setResultCode(ContractResult.REVERT);
+    assertSame(id, tx.getTransactionId());
+    assertMatchesInstance(tx);
+  }
+
+  @Test
+  public void blockHeaderChangesDropTheBlockId() {
+    BlockCapsule block = new BlockCapsule(1, ByteString.copyFrom(new byte[32]), 1);
+    BlockCapsule.BlockId id = block.getBlockId();
+    byte[] data = block.getData();
+
+    block.addTransaction(createTransaction("a"));
+    assertArrayEquals(block.getInstance().toByteArray(), block.getData());
+    assertNotEquals(data.length, block.getData().length);
+
+    block.setMerkleRoot();
+    assertNotEquals(id, block.getBlockId());
+    assertEquals(new BlockCapsule(block.getInstance()).getBlockId(), block.getBlockId());
+    assertEquals(new BlockCapsule(block.getInstance()).calcMerkleRoot(), block.getMerkleRoot());
+    assertArrayEquals(block.getInstance().toByteArray(), block.getData());
+
+    id = block.getBlockId();
+    block.setAccountStateRoot(new byte[32]);
+    assertNotEquals(id, block.getBlockId());
+    assertEquals(new BlockCapsule(block.getInstance()).getBlockId(), block.getBlockId());
+  }
+
+  private static void assertMatchesInstance(TransactionCapsule tx) {
+    Transaction instance = tx.getInstance();
+    assertEquals(Sha256Hash.of(DBConfig.isEccCryptoEngine(),
+        instance.getRawData().toByteArray()), tx.getTransactionId());
+    assertArrayEquals(instance.toByteArray(), tx.getData());
+    assertEquals(Sha256Hash.of(DBConfig.isEccCryptoEngine(), instance.toByteArray()),
+        tx.getMerkleHash());
+  }
+
+  private static TransactionCapsule createTransaction(String data) {
+    return new TransactionCapsule(Transaction.newBuilder()
+        .setRawData(Transaction.raw.newBuilder()
+            .setExpiration(1000)
+            .setData(ByteString.copyFromUtf8(data)))
+        .build());
+  }
+}
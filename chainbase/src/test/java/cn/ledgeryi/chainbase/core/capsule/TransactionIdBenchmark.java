@@ -0,0 +1,79 @@
+package cn.ledgeryi.chainbase.core.capsule;
+
+import cn.ledgeryi.chainbase.common.utils.DBConfig;
+import cn.ledgeryi.common.utils.Sha256Hash;
+import cn.ledgeryi.protos.Protocol.Transaction;
+import com.google.protobuf.ByteString;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Id lookups of one pushed transaction. A transaction asks for its id about ten times between
+ * push and block: dup check, signature check, pending pool, packing, history, transaction store
+ * and the id caches. Memoized it is hashed once; rehashed is what every lookup cost before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TransactionIdBenchmark {
+
+  @Param({"1", "10"})
+  private int lookups;
+
+  private Transaction transaction;
+
+  @Setup
+  public void setup() {
+    transaction = Transaction.newBuilder()
+        .setRawData(Transaction.raw.newBuilder()
+            .setRefBlockBytes(ByteString.copyFrom(new byte[2]))
+            .setRefBlockHash(ByteString.copyFrom(new byte[8]))
+            .setExpiration(System.currentTimeMillis())
+            .setData(ByteString.copyFrom(new byte[200])))
+        .setSignature(ByteString.copyFrom(new byte[65]))
+        .build();
+  }
+
+  @Benchmark
+  public Sha256Hash memoized() {
+    TransactionCapsule tx = new TransactionCapsule(transaction);
+    Sha256Hash id = null;
+    for (int i = 0; i < lookups; i++) {
+      id = tx.getTransactionId();
+    }
+    return id;
+  }
+
+  @Benchmark
+  public Sha256Hash rehashed() {
+    TransactionCapsule tx = new TransactionCapsule(transaction);
+    Sha256Hash id = null;
+    for (int i = 0; i < lookups; i++) {
+      id = Sha256Hash.of(DBConfig.isEccCryptoEngine(),
+          tx.getInstance().getRawData().toByteArray());
+    }
+    return id;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(TransactionIdBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
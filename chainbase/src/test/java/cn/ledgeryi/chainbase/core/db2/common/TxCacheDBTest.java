@@ -0,0 +1,189 @@
+package cn.ledgeryi.chainbase.core.db2.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import cn.ledgeryi.common.utils.ByteArray;
+import com.google.common.primitives.Longs;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import org.junit.Test;
+
+public class TxCacheDBTest {
+
+  // home slot of an id is its first word folded, the initial table has 65536 slots
+  private static final long LAST_SLOT = 65_535;
+
+  @Test
+  public void collidingIdsWrapAroundTheTable() {
+    TxCacheDB db = new TxCacheDB("test");
+    List<byte[]> ids = new ArrayList<>();
+    // eight ids with the same home slot near the end, the chain wraps to the start of the table
+    for (int i = 0; i < 8; i++) {
+      ids.add(id(LAST_SLOT - 1, i));
+    }
+    // ids at home in the first slots, behind the wrapped chain
+    ids.add(id(0, 100));
+    ids.add(id(1, 101));
+    for (int i = 0; i < ids.size(); i++) {
+      db.put(ids.get(i), Longs.toByteArray(i + 1));
+    }
+    assertEquals(ids.size(), db.size());
+    assertAll(db, ids, ids.size());
+
+    // deleting from the head, the middle and the wrapped part keeps the others reachable
+    for (int index : new int[] {0, 3, 6, 8}) {
+      db.remove(ids.get(index));
+      assertNull(db.get(ids.get(index)));
+      ids.set(index, null);
+      assertAll(db, ids, ids.size());
+    }
+    assertEquals(6, db.size());
+
+    // the freed slots are used again
+    db.put(id(LAST_SLOT - 1, 50), Longs.toByteArray(20));
+    db.put(id(0, 51), Longs.toByteArray(20));
+    assertEquals(8, db.size());
+    assertEquals(20, Longs.fromByteArray(db.get(id(LAST_SLOT - 1, 50))));
+    assertEquals(20, Longs.fromByteArray(db.get(id(0, 51))));
+    assertAll(db, ids, ids.size());
+  }
+
+  @Test
+  public void expiredBlocksLeaveTheWrappedChain() {
+    TxCacheDB db = new TxCacheDB("test");
+    List<byte[]> ids = new ArrayList<>();
+    // one colliding id per block, expiry deletes them from the front of the chain
+    for (int i = 0; i < 6; i++) {
+      byte[] id = id(LAST_SLOT, i);
+      ids.add(id);
+      db.put(id, Longs.toByteArray(i + 1));
+    }
+    byte[] first = id(0, 100);
+    db.put(first, Longs.toByteArray(6));
+
+    db.put(id(7, 0), Longs.toByteArray(TxCacheDB.BLOCK_COUNT + 3));
+    for (int i = 0; i < 3; i++) {
+      assertNull(db.get(ids.get(i)));
+    }
+    for (int i = 3; i < 6; i++) {
+      assertEquals(i + 1, Longs.fromByteArray(db.get(ids.get(i))));
+    }
+    assertEquals(6, Longs.fromByteArray(db.get(first)));
+    assertEquals(5, db.size());
+  }
+
+  @Test
+  public void blocksExpireAtTheWindowBoundary() {
+    TxCacheDB db = new TxCacheDB("test");
+    byte[] first = randomId(1);
+    byte[] second = randomId(2);
+    db.put(first, Longs.toByteArray(1));
+    db.put(second, Longs.toByteArray(2));
+
+    // blocks 1 to BLOCK_COUNT are all in the window
+    db.put(randomId(3), Longs.toByteArray(TxCacheDB.BLOCK_COUNT));
+    assertEquals(1, Longs.fromByteArray(db.get(first)));
+
+    db.put(randomId(4), Longs.toByteArray(TxCacheDB.BLOCK_COUNT + 1));
+    assertNull(db.get(first));
+    assertEquals(2, Longs.fromByteArray(db.get(second)));
+    assertEquals(3, db.size());
+
+    // a block that already left the window is not written, the oldest one in it is
+    db.put(randomId(5), Longs.toByteArray(1));
+    assertNull(db.get(randomId(5)));
+    db.put(randomId(6), Longs.toByteArray(2));
+    assertEquals(2, Longs.fromByteArray(db.get(randomId(6))));
+
+    db.put(randomId(7), Longs.toByteArray(TxCacheDB.BLOCK_COUNT + 2));
+    assertNull(db.get(second));
+    assertNull(db.get(randomId(6)));
+    assertEquals(3, db.size());
+  }
+
+  @Test
+  public void anIdSeenAgainLivesWithItsNewBlock() {
+    TxCacheDB db = new TxCacheDB("test");
+    byte[] id = randomId(1);
+    db.put(id, Longs.toByteArray(1));
+    db.put(id, Longs.toByteArray(5));
+    assertEquals(1, db.size());
+    assertEquals(5, Longs.fromByteArray(db.get(id)));
+
+    db.put(randomId(2), Longs.toByteArray(TxCacheDB.BLOCK_COUNT + 1));
+    assertEquals(5, Longs.fromByteArray(db.get(id)));
+    db.put(randomId(3), Longs.toByteArray(TxCacheDB.BLOCK_COUNT + 5));
+    assertNull(db.get(id));
+  }
+
+  @Test
+  public void flushIgnoresDeletes() {
+    TxCacheDB db = new TxCacheDB("test");
+    byte[] kept = randomId(1);
+    byte[] written = randomId(2);
+    db.put(kept, Longs.toByteArray(1));
+    db.flush(rows -> {
+      rows.put(written, Longs.toByteArray(2));
+      rows.delete(kept);
+      rows.delete(written);
+    });
+    assertEquals(1, Longs.fromByteArray(db.get(kept)));
+    assertEquals(2, Longs.fromByteArray(db.get(written)));
+    assertEquals(2, db.size());
+
+    db.remove(kept);
+    assertNull(db.get(kept));
+  }
+
+  @Test
+  public void growingKeepsEveryId() {
+    TxCacheDB db = new TxCacheDB("test");
+    Map<String, Long> expected = new HashMap<>();
+    Random random = new Random(1);
+    for (int i = 0; i < 200_000; i++) {
+      byte[] id = new byte[32];
+      random.nextBytes(id);
+      long blockNum = i / 100 + 1;
+      db.put(id, Longs.toByteArray(blockNum));
+      expected.put(ByteArray.toHexString(id), blockNum);
+    }
+    assertEquals(expected.size(), db.size());
+    Map<String, Long> actual = new HashMap<>();
+    Iterator<Entry<byte[], byte[]>> iterator = db.iterator();
+    while (iterator.hasNext()) {
+      Entry<byte[], byte[]> entry = iterator.next();
+      actual.put(ByteArray.toHexString(entry.getKey()), Longs.fromByteArray(entry.getValue()));
+      assertArrayEquals(entry.getValue(), db.get(entry.getKey()));
+    }
+    assertEquals(expected, actual);
+  }
+
+  private static void assertAll(TxCacheDB db, List<byte[]> ids, int count) {
+    for (int i = 0; i < count; i++) {
+      if (ids.get(i) != null) {
+        assertEquals(i + 1, Longs.fromByteArray(db.get(ids.get(i))));
+      }
+    }
+  }
+
+  /**
+   * an id whose first word is prefix, so its home slot is prefix in the initial table.
+   */
+  private static byte[] id(long prefix, long n) {
+    return ByteBuffer.allocate(32).putLong(prefix).putLong(n).putLong(n).putLong(n).array();
+  }
+
+  private static byte[] randomId(long seed) {
+    byte[] id = new byte[32];
+    new Random(seed).nextBytes(id);
+    return id;
+  }
+}
@@ -0,0 +1,238 @@
+package cn.ledgeryi.chainbase.core.db2.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import cn.ledgeryi.chainbase.core.db.common.WriteBatchInter;
+import cn.ledgeryi.chainbase.core.db2.common.DB;
+import cn.ledgeryi.chainbase.core.db2.common.Flusher;
+import cn.ledgeryi.chainbase.core.db2.common.WrappedByteArray;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Longs;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.Test;
+
+/**
+ * Readers of a Chainbase against a writer applying blocks through the snapshot manager. Every
+ * block writes its number as the value of the keys it touches, some blocks are revoked. A reader
+ * may see a block while it is being applied, but never a block revoked before the read started,
+ * and the committed blocks it sees never go backwards.
+ */
+public class ChainbaseConcurrencyTest {
+
+  private static final int BLOCKS = 3_000;
+  private static final int READERS = 4;
+  private static final int HOT_KEYS = 8;
+  private static final int COLD_KEYS = 4;
+  // cold keys are written every COLD_INTERVAL blocks, their reads walk down the chain
+  private static final int COLD_INTERVAL = 50;
+
+  private final List<byte[]> keys = new ArrayList<>();
+  private final Set<Long> revoked = ConcurrentHashMap.newKeySet();
+  private final List<Throwable> failures = new CopyOnWriteArrayList<>();
+  private volatile long applying;
+  private volatile long lastRevoked;
+  private volatile boolean done;
+
+  @Test
+  public void readersOnlySeeCommittedOrHeadValues() throws InterruptedException {
+    MemoryDB memory = new MemoryDB();
+    for (int i = 0; i < HOT_KEYS + COLD_KEYS; i++) {
+      byte[] key = Longs.toByteArray(i);
+      keys.add(key);
+      memory.put(key, Longs.toByteArray(0));
+    }
+    Chainbase chainbase = new Chainbase(new SnapshotRoot(memory));
+    SnapshotManager manager = new SnapshotManager("");
+    manager.setMaxSize(BLOCKS * 2);
+    manager.add(chainbase);
+    manager.enable();
+
+    ExecutorService readers = Executors.newFixedThreadPool(READERS);
+    for (int i = 0; i < READERS; i++) {
+      boolean batch = i % 2 == 1;
+      readers.submit(() -> read(chainbase, batch));
+    }
+    try {
+      write(manager, chainbase);
+    } catch (Throwable e) {
+      failures.add(e);
+    } finally {
+      done = true;
+      readers.shutdown();
+      assertTrue(readers.awaitTermination(1, TimeUnit.MINUTES));
+    }
+
+    assertEquals(new ArrayList<>(), failures);
+    long last = BLOCKS;
+    while (revoked.contains(last)) {
+      last--;
+    }
+    for (int i = 0; i < HOT_KEYS; i++) {
+      assertEquals(last, Longs.fromByteArray(chainbase.getUnchecked(keys.get(i))));
+    }
+  }
+
+  /**
+   * a block session, a merged session per transaction, then commit or revoke as the block
+   * producer and the block processing do.
+   */
+  private void write(SnapshotManager manager, Chainbase chainbase) {
+    Random random = new Random(1);
+    for (long num = 1; num <= BLOCKS; num++) {
+      boolean revoke = random.nextInt(5) == 0;
+      if (revoke) {
+        revoked.add(num);
+      }
+      applying = num;
+      byte[] value = Longs.toByteArray(num);
+      ISession block = manager.buildSession();
+      for (int tx = 0; tx < 4; tx++) {
+        ISession session = manager.buildSession();
+        for (int i = tx; i < HOT_KEYS; i += 4) {
+          chainbase.put(keys.get(i), value);
+        }
+        if (tx == 0 && num % COLD_INTERVAL == 0) {
+          for (int i = HOT_KEYS; i < keys.size(); i++) {
+            chainbase.put(keys.get(i), value);
+          }
+        }
+        session.merge();
+      }
+      if (revoke) {
+        block.revoke();
+        lastRevoked = num;
+      } else {
+        block.commit();
+      }
+    }
+  }
+
+  private void read(Chainbase chainbase, boolean batch) {
+    long[] committed = new long[keys.size()];
+    try {
+      while (!done) {
+        long revokedBefore = lastRevoked;
+        if (batch) {
+          Map<WrappedByteArray, byte[]> values = chainbase.getBatch(keys);
+          long applied = applying;
+          for (int i = 0; i < keys.size(); i++) {
+            check(i, values.get(WrappedByteArray.of(keys.get(i))), revokedBefore, applied,
+                committed);
+          }
+        } else {
+          for (int i = 0; i < keys.size(); i++) {
+            byte[] value = chainbase.getUnchecked(keys.get(i));
+            check(i, value, revokedBefore, applying, committed);
+          }
+        }
+      }
+    } catch (Throwable e) {
+      failures.add(e);
+    }
+  }
+
+  private void check(int key, byte[] value, long revokedBefore, long applied, long[] committed) {
+    if (value == null) {
+      throw new AssertionError("key " + key + " has no value");
+    }
+    long num = Longs.fromByteArray(value);
+    if (num > applied) {
+      throw new AssertionError("key " + key + " has block " + num + " before it is applied");
+    }
+    if (revoked.contains(num)) {
+      if (num <= revokedBefore) {
+        throw new AssertionError("key " + key + " has block " + num + " after its revoke");
+      }
+    } else {
+      if (num < committed[key]) {
+        throw new AssertionError(
+            "key " + key + " went back from block " + committed[key] + " to " + num);
+      }
+      committed[key] = num;
+    }
+  }
+
+  private static class MemoryDB implements DB<byte[], byte[]>, Flusher {
+
+    private final Map<WrappedByteArray, byte[]> db = new ConcurrentHashMap<>();
+
+    @Override
+    public byte[] get(byte[] key) {
+      return db.get(WrappedByteArray.of(key));
+    }
+
+    @Override
+    public void put(byte[] key, byte[] value) {
+      db.put(WrappedByteArray.of(key), value);
+    }
+
+    @Override
+    public long size() {
+      return db.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return db.isEmpty();
+    }
+
+    @Override
+    public void remove(byte[] key) {
+      db.remove(WrappedByteArray.of(key));
+    }
+
+    @Override
+    public String getDbName() {
+      return "memory";
+    }
+
+    @Override
+    public Iterator<Entry<byte[], byte[]>> iterator() {
+      return Iterators.transform(db.entrySet().iterator(),
+          e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue()));
+    }
+
+    @Override
+    public void flush(Consumer<WriteBatchInter<byte[], byte[]>> rows) {
+      rows.accept(new WriteBatchInter<byte[], byte[]>() {
+        @Override
+        public void put(byte[] key, byte[] value) {
+          MemoryDB.this.put(key, value);
+        }
+
+        @Override
+        public void delete(byte[] key) {
+          remove(key);
+        }
+      });
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void reset() {
+      db.clear();
+    }
+
+    @Override
+    public MemoryDB newInstance() {
+      return new MemoryDB();
+    }
+  }
+}
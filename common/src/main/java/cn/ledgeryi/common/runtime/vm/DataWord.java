@@ -19,6 +19,11 @@ public class DataWord implements Comparable<DataWord> {
   public static final BigInteger _2_256 = BigInteger.valueOf(2).pow(256);
   public static final BigInteger MAX_VALUE = _2_256.subtract(BigInteger.ONE);
   public static final DataWord ZERO = new DataWord(new byte[WORD_SIZE]);      // don't push it in to the stack
+  // 32-bit digits of a word, used by multiplication and division
+  private static final int DIGITS = WORD_SIZE / Integer.BYTES;
+  private static final long DIGIT_MASK = 0xFFFFFFFFL;
+  // work arrays of the multi-digit operations, reused by every operation of a thread
+  private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
   private byte[] data = new byte[32];
 
   public DataWord() {
@@ -268,26 +273,32 @@ public class DataWord implements Comparable<DataWord> {
       return;
     }
 
-    bnot();
-    add(DataWord.ONE());
+    byte[] result = new byte[WORD_SIZE];
+    for (int i = WORD_SIZE - 1, carry = 1; i >= 0; i--) {
+      int v = (~this.data[i] & 0xff) + carry;
+      result[i] = (byte) v;
+      carry = v >>> 8;
+    }
+    this.data = result;
   }
 
   public void bnot() {
-    if (this.isZero()) {
-      this.data = ByteUtil.copyToArray(MAX_VALUE);
-      return;
+    byte[] result = new byte[WORD_SIZE];
+    for (int i = 0; i < WORD_SIZE; i++) {
+      result[i] = (byte) ~this.data[i];
     }
-    this.data = ByteUtil.copyToArray(MAX_VALUE.subtract(this.value()));
+    this.data = result;
   }
 
-  // By   : Holger
-  // From : http://stackoverflow.com/a/24023466/459349
   public void add(DataWord word) {
-    byte[] result = new byte[32];
-    for (int i = 31, overflow = 0; i >= 0; i--) {
-      int v = (this.data[i] & 0xff) + (word.data[i] & 0xff) + overflow;
-      result[i] = (byte) v;
-      overflow = v >>> 8;
+    byte[] result = new byte[WORD_SIZE];
+    long carry = 0;
+    for (int offset = WORD_SIZE - Long.BYTES; offset >= 0; offset -= Long.BYTES) {
+      long a = getLong(this.data, offset);
+      long sum = a + getLong(word.data, offset) + carry;
+      int cmp = Long.compareUnsigned(sum, a);
+      carry = cmp < 0 || (carry == 1 && cmp == 0) ? 1 : 0;
+      putLong(result, offset, sum);
     }
     this.data = result;
   }
@@ -298,15 +309,14 @@ public class DataWord implements Comparable<DataWord> {
     this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
   }
 
-  // mul can be done in more efficient way
-  // with shift left shift right trick
-  // without BigInteger quick hack
   public void mul(DataWord word) {
-    BigInteger result = value().multiply(word.value());
-    this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+    Scratch scratch = SCRATCH.get();
+    toDigits(this.data, scratch.a);
+    toDigits(word.data, scratch.b);
+    multiply(scratch.a, scratch.b, scratch.product, DIGITS);
+    this.data = toBytes(scratch.product);
   }
 
-  // improve with no BigInteger
   public void div(DataWord word) {
 
     if (word.isZero()) {
@@ -314,11 +324,12 @@ public class DataWord implements Comparable<DataWord> {
       return;
     }
 
-    BigInteger result = value().divide(word.value());
-    this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+    Scratch scratch = SCRATCH.get();
+    divide(toDigits(this.data, scratch.a), DIGITS, toDigits(word.data, scratch.b), scratch.q,
+        null, scratch);
+    this.data = toBytes(scratch.q);
   }
 
-  // improve with no BigInteger
   public void sDiv(DataWord word) {
 
     if (word.isZero()) {
@@ -326,23 +337,63 @@ public class DataWord implements Comparable<DataWord> {
       return;
     }
 
-    BigInteger result = sValue().divide(word.sValue());
-    this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+    Scratch scratch = SCRATCH.get();
+    int[] dividend = toDigits(this.data, scratch.a);
+    int[] divisor = toDigits(word.data, scratch.b);
+    boolean negative = isNegative() != word.isNegative();
+    if (isNegative()) {
+      negate(dividend, DIGITS);
+    }
+    if (word.isNegative()) {
+      negate(divisor, DIGITS);
+    }
+    divide(dividend, DIGITS, divisor, scratch.q, null, scratch);
+    if (negative) {
+      negate(scratch.q, DIGITS);
+    }
+    this.data = toBytes(scratch.q);
   }
 
-  // improve with no BigInteger
   public void sub(DataWord word) {
-    BigInteger result = value().subtract(word.value());
-    this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+    byte[] result = new byte[WORD_SIZE];
+    long borrow = 0;
+    for (int offset = WORD_SIZE - Long.BYTES; offset >= 0; offset -= Long.BYTES) {
+      long a = getLong(this.data, offset);
+      long b = getLong(word.data, offset);
+      int cmp = Long.compareUnsigned(a, b);
+      putLong(result, offset, a - b - borrow);
+      borrow = cmp < 0 || (borrow == 1 && cmp == 0) ? 1 : 0;
+    }
+    this.data = result;
   }
 
-  // improve with no BigInteger
   public void exp(DataWord word) {
-    BigInteger result = value().modPow(word.value(), _2_256);
-    this.data = ByteUtil.copyToArray(result);
+    Scratch scratch = SCRATCH.get();
+    int[] base = toDigits(this.data, scratch.b);
+    int[] result = scratch.product;
+    int[] next = scratch.tmp;
+    java.util.Arrays.fill(result, 0, DIGITS, 0);
+    result[0] = 1;
+    int first = ByteUtil.firstNonZeroByte(word.data);
+    if (first >= 0) {
+      for (int i = first; i < WORD_SIZE; i++) {
+        for (int bit = 7; bit >= 0; bit--) {
+          multiply(result, result, next, DIGITS);
+          int[] swap = result;
+          result = next;
+          next = swap;
+          if ((word.data[i] >>> bit & 1) == 1) {
+            multiply(result, base, next, DIGITS);
+            swap = result;
+            result = next;
+            next = swap;
+          }
+        }
+      }
+    }
+    this.data = toBytes(result);
   }
 
-  // improve with no BigInteger
   public void mod(DataWord word) {
 
     if (word.isZero()) {
@@ -350,8 +401,10 @@ public class DataWord implements Comparable<DataWord> {
       return;
     }
 
-    BigInteger result = value().mod(word.value());
-    this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+    Scratch scratch = SCRATCH.get();
+    divide(toDigits(this.data, scratch.a), DIGITS, toDigits(word.data, scratch.b), null,
+        scratch.r, scratch);
+    this.data = toBytes(scratch.r);
   }
 
   public void sMod(DataWord word) {
@@ -361,10 +414,20 @@ public class DataWord implements Comparable<DataWord> {
       return;
     }
 
-    BigInteger result = sValue().abs().mod(word.sValue().abs());
-    result = (sValue().signum() == -1) ? result.negate() : result;
-
-    this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+    Scratch scratch = SCRATCH.get();
+    int[] dividend = toDigits(this.data, scratch.a);
+    int[] divisor = toDigits(word.data, scratch.b);
+    if (isNegative()) {
+      negate(dividend, DIGITS);
+    }
+    if (word.isNegative()) {
+      negate(divisor, DIGITS);
+    }
+    divide(dividend, DIGITS, divisor, null, scratch.r, scratch);
+    if (isNegative()) {
+      negate(scratch.r, DIGITS);
+    }
+    this.data = toBytes(scratch.r);
   }
 
   public void addmod(DataWord word1, DataWord word2) {
@@ -373,8 +436,19 @@ public class DataWord implements Comparable<DataWord> {
       return;
     }
 
-    BigInteger result = value().add(word1.value()).mod(word2.value());
-    this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+    Scratch scratch = SCRATCH.get();
+    int[] sum = toDigits(this.data, scratch.a);
+    int[] b = toDigits(word1.data, scratch.b);
+    // one more digit for the carry of the sum
+    long carry = 0;
+    for (int i = 0; i < DIGITS; i++) {
+      long v = (sum[i] & DIGIT_MASK) + (b[i] & DIGIT_MASK) + carry;
+      sum[i] = (int) v;
+      carry = v >>> 32;
+    }
+    sum[DIGITS] = (int) carry;
+    divide(sum, DIGITS + 1, toDigits(word2.data, scratch.b), null, scratch.r, scratch);
+    this.data = toBytes(scratch.r);
   }
 
   public void mulmod(DataWord word1, DataWord word2) {
@@ -384,8 +458,202 @@ public class DataWord implements Comparable<DataWord> {
       return;
     }
 
-    BigInteger result = value().multiply(word1.value()).mod(word2.value());
-    this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+    Scratch scratch = SCRATCH.get();
+    toDigits(this.data, scratch.a);
+    toDigits(word1.data, scratch.b);
+    multiply(scratch.a, scratch.b, scratch.product, DIGITS * 2);
+    divide(scratch.product, DIGITS * 2, toDigits(word2.data, scratch.b), null, scratch.r,
+        scratch);
+    this.data = toBytes(scratch.r);
+  }
+
+  private static long getLong(byte[] bytes, int offset) {
+    long v = 0;
+    for (int i = offset; i < offset + Long.BYTES; i++) {
+      v = (v << 8) | (bytes[i] & 0xff);
+    }
+    return v;
+  }
+
+  private static void putLong(byte[] bytes, int offset, long v) {
+    for (int i = offset + Long.BYTES - 1; i >= offset; i--) {
+      bytes[i] = (byte) v;
+      v >>>= 8;
+    }
+  }
+
+  /**
+   * the word as eight 32-bit digits, least significant first, written into the lowest digits.
+   */
+  private static int[] toDigits(byte[] bytes, int[] digits) {
+    for (int i = 0; i < DIGITS; i++) {
+      int offset = WORD_SIZE - (i + 1) * Integer.BYTES;
+      digits[i] = (bytes[offset] & 0xff) << 24 | (bytes[offset + 1] & 0xff) << 16
+          | (bytes[offset + 2] & 0xff) << 8 | (bytes[offset + 3] & 0xff);
+    }
+    return digits;
+  }
+
+  /**
+   * the lowest eight digits as a word.
+   */
+  private static byte[] toBytes(int[] digits) {
+    byte[] bytes = new byte[WORD_SIZE];
+    for (int i = 0; i < DIGITS; i++) {
+      int offset = WORD_SIZE - (i + 1) * Integer.BYTES;
+      int digit = digits[i];
+      bytes[offset] = (byte) (digit >>> 24);
+      bytes[offset + 1] = (byte) (digit >>> 16);
+      bytes[offset + 2] = (byte) (digit >>> 8);
+      bytes[offset + 3] = (byte) digit;
+    }
+    return bytes;
+  }
+
+  /**
+   * two's complement of the lowest length digits, in place.
+   */
+  private static void negate(int[] digits, int length) {
+    long carry = 1;
+    for (int i = 0; i < length; i++) {
+      long v = (~digits[i] & DIGIT_MASK) + carry;
+      digits[i] = (int) v;
+      carry = v >>> 32;
+    }
+  }
+
+  /**
+   * the lowest length digits of a * b into result, a and b have eight digits and result must be
+   * another array than both.
+   */
+  private static void multiply(int[] a, int[] b, int[] result, int length) {
+    java.util.Arrays.fill(result, 0, length, 0);
+    for (int i = 0; i < DIGITS && i < length; i++) {
+      long ai = a[i] & DIGIT_MASK;
+      if (ai == 0) {
+        continue;
+      }
+      long carry = 0;
+      int j = 0;
+      for (; j < DIGITS && i + j < length; j++) {
+        long v = ai * (b[j] & DIGIT_MASK) + (result[i + j] & DIGIT_MASK) + carry;
+        result[i + j] = (int) v;
+        carry = v >>> 32;
+      }
+      if (i + j < length) {
+        result[i + j] = (int) carry;
+      }
+    }
+  }
+
+  private static int significantDigits(int[] digits, int length) {
+    while (length > 0 && digits[length - 1] == 0) {
+      length--;
+    }
+    return length;
+  }
+
+  /**
+   * unsigned u / v over the lowest uLength digits of u and eight of v, knuth's algorithm D. the
+   * quotient and remainder are written into the eight digits of q and r when they are not null,
+   * v must not be zero. u is left alone, the normalized copies live in the scratch.
+   */
+  private static void divide(int[] u, int uLength, int[] v, int[] q, int[] r, Scratch scratch) {
+    int m = significantDigits(u, uLength);
+    int n = significantDigits(v, DIGITS);
+    if (q != null) {
+      java.util.Arrays.fill(q, 0, DIGITS, 0);
+    }
+    if (r != null) {
+      java.util.Arrays.fill(r, 0, DIGITS, 0);
+    }
+
+    if (m < n) {
+      if (r != null) {
+        System.arraycopy(u, 0, r, 0, m);
+      }
+      return;
+    }
+
+    if (n == 1) {
+      long divisor = v[0] & DIGIT_MASK;
+      long rem = 0;
+      for (int j = m - 1; j >= 0; j--) {
+        long current = rem << 32 | (u[j] & DIGIT_MASK);
+        long digit = Long.divideUnsigned(current, divisor);
+        rem = current - digit * divisor;
+        if (q != null && j < DIGITS) {
+          q[j] = (int) digit;
+        }
+      }
+      if (r != null) {
+        r[0] = (int) rem;
+      }
+      return;
+    }
+
+    // normalize so the top digit of the divisor has its high bit set
+    int s = Integer.numberOfLeadingZeros(v[n - 1]);
+    int[] vn = scratch.vn;
+    for (int i = n - 1; i > 0; i--) {
+      vn[i] = s == 0 ? v[i] : v[i] << s | v[i - 1] >>> (32 - s);
+    }
+    vn[0] = v[0] << s;
+    int[] un = scratch.un;
+    un[m] = s == 0 ? 0 : u[m - 1] >>> (32 - s);
+    for (int i = m - 1; i > 0; i--) {
+      un[i] = s == 0 ? u[i] : u[i] << s | u[i - 1] >>> (32 - s);
+    }
+    un[0] = u[0] << s;
+
+    long vTop = vn[n - 1] & DIGIT_MASK;
+    long vNext = vn[n - 2] & DIGIT_MASK;
+    for (int j = m - n; j >= 0; j--) {
+      long numerator = (un[j + n] & DIGIT_MASK) << 32 | (un[j + n - 1] & DIGIT_MASK);
+      long qhat = Long.divideUnsigned(numerator, vTop);
+      long rhat = numerator - qhat * vTop;
+      while (qhat > DIGIT_MASK || Long.compareUnsigned(qhat * vNext,
+          rhat << 32 | (un[j + n - 2] & DIGIT_MASK)) > 0) {
+        qhat--;
+        rhat += vTop;
+        if (rhat > DIGIT_MASK) {
+          break;
+        }
+      }
+
+      // multiply and subtract
+      long borrow = 0;
+      long t;
+      for (int i = 0; i < n; i++) {
+        long p = qhat * (vn[i] & DIGIT_MASK);
+        t = (un[i + j] & DIGIT_MASK) - borrow - (p & DIGIT_MASK);
+        un[i + j] = (int) t;
+        borrow = (p >>> 32) - (t >> 32);
+      }
+      t = (un[j + n] & DIGIT_MASK) - borrow;
+      un[j + n] = (int) t;
+
+      if (t < 0) {
+        // subtracted too much, add the divisor back
+        qhat--;
+        long carry = 0;
+        for (int i = 0; i < n; i++) {
+          t = (un[i + j] & DIGIT_MASK) + (vn[i] & DIGIT_MASK) + carry;
+          un[i + j] = (int) t;
+          carry = t >>> 32;
+        }
+        un[j + n] = (int) ((un[j + n] & DIGIT_MASK) + carry);
+      }
+      if (q != null && j < DIGITS) {
+        q[j] = (int) qhat;
+      }
+    }
+
+    if (r != null) {
+      for (int i = 0; i < n && i < DIGITS; i++) {
+        r[i] = s == 0 ? un[i] : un[i] >>> s | un[i + 1] << (32 - s);
+      }
+    }
   }
 
   @JsonValue
@@ -453,7 +721,7 @@ public class DataWord implements Comparable<DataWord> {
     if (0 > k || k > 31) {
       throw new IndexOutOfBoundsException();
     }
-    byte mask = this.sValue().testBit((k * 8) + 7) ? (byte) 0xff : 0;
+    byte mask = (this.data[31 - k] & 0x80) != 0 ? (byte) 0xff : 0;
     for (int i = 31; i > k; i--) {
       this.data[31 - i] = mask;
     }
@@ -485,12 +753,22 @@ public class DataWord implements Comparable<DataWord> {
    * @return this << arg
    */
   public DataWord shiftLeft(DataWord arg) {
-    if (arg.value().compareTo(BigInteger.valueOf(MAX_POW)) >= 0) {
+    if (arg.bytesOccupied() > 1) {
       return DataWord.ZERO();
     }
 
-    BigInteger result = value().shiftLeft(arg.intValueSafe());
-    return new DataWord(ByteUtil.copyToArray(result.and(MAX_VALUE)));
+    int byteShift = arg.intValue() / 8;
+    int bitShift = arg.intValue() % 8;
+    byte[] result = new byte[WORD_SIZE];
+    for (int i = 0; i + byteShift < WORD_SIZE; i++) {
+      int src = i + byteShift;
+      int v = (data[src] & 0xff) << bitShift;
+      if (bitShift > 0 && src + 1 < WORD_SIZE) {
+        v |= (data[src + 1] & 0xff) >>> (8 - bitShift);
+      }
+      result[i] = (byte) v;
+    }
+    return new DataWord(result);
   }
 
   /**
@@ -499,12 +777,11 @@ public class DataWord implements Comparable<DataWord> {
    * @return this >> arg
    */
   public DataWord shiftRight(DataWord arg) {
-    if (arg.value().compareTo(BigInteger.valueOf(MAX_POW)) >= 0) {
+    if (arg.bytesOccupied() > 1) {
       return DataWord.ZERO();
     }
 
-    BigInteger result = value().shiftRight(arg.intValueSafe());
-    return new DataWord(ByteUtil.copyToArray(result.and(MAX_VALUE)));
+    return new DataWord(shiftRight(data, arg.intValue(), 0));
   }
 
   /**
@@ -513,7 +790,7 @@ public class DataWord implements Comparable<DataWord> {
    * @return this >> arg
    */
   public DataWord shiftRightSigned(DataWord arg) {
-    if (arg.value().compareTo(BigInteger.valueOf(MAX_POW)) >= 0) {
+    if (arg.bytesOccupied() > 1) {
       if (this.isNegative()) {
         DataWord result = ONE();
         result.negate();
@@ -523,7 +800,39 @@ public class DataWord implements Comparable<DataWord> {
       }
     }
 
-    BigInteger result = sValue().shiftRight(arg.intValueSafe());
-    return new DataWord(ByteUtil.copyToArray(result.and(MAX_VALUE)));
+    return new DataWord(shiftRight(data, arg.intValue(), isNegative() ? 0xff : 0));
+  }
+
+  private static byte[] shiftRight(byte[] data, int shift, int fill) {
+    int byteShift = shift / 8;
+    int bitShift = shift % 8;
+    byte[] result = new byte[WORD_SIZE];
+    for (int i = 0; i < WORD_SIZE; i++) {
+      int src = i - byteShift;
+      if (src < 0) {
+        result[i] = (byte) fill;
+        continue;
+      }
+      int v = (data[src] & 0xff) >>> bitShift;
+      if (bitShift > 0) {
+        v |= (src > 0 ? data[src - 1] & 0xff : fill) << (8 - bitShift);
+      }
+      result[i] = (byte) v;
+    }
+    return result;
+  }
+
+  private static final class Scratch {
+
+    // operands, a has room for the carry digit of addmod
+    private final int[] a = new int[DIGITS + 1];
+    private final int[] b = new int[DIGITS];
+    private final int[] product = new int[DIGITS * 2];
+    private final int[] tmp = new int[DIGITS * 2];
+    private final int[] q = new int[DIGITS];
+    private final int[] r = new int[DIGITS];
+    // normalized dividend and divisor of divide
+    private final int[] un = new int[DIGITS * 2 + 1];
+    private final int[] vn = new int[DIGITS];
   }
 }
@@ -0,0 +1,225 @@
+package cn.ledgeryi.common.runtime.vm;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import cn.ledgeryi.common.utils.ByteUtil;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.spongycastle.util.encoders.Hex;
+
+/**
+ * checks the word arithmetic against the BigInteger formulas it replaced.
+ */
+public class DataWordTest {
+
+  private static final BigInteger MAX = DataWord.MAX_VALUE;
+  private static final BigInteger SHIFT_LIMIT = BigInteger.valueOf(256);
+  private static final int RANDOM_ROUNDS = 20_000;
+
+  private final Random random = new Random(20200601);
+
+  @Test
+  public void edgeCases() {
+    List<byte[]> values = edgeValues();
+    for (byte[] a : values) {
+      for (byte[] b : values) {
+        checkBinary(a, b);
+        for (byte[] c : values) {
+          checkTernary(a, b, c);
+        }
+      }
+      checkUnary(a);
+      for (int shift : new int[]{0, 1, 7, 8, 31, 32, 63, 64, 128, 254, 255, 256, 257, 1000}) {
+        checkShifts(a, word(BigInteger.valueOf(shift)));
+      }
+      checkShifts(a, word(MAX));
+    }
+  }
+
+  @Test
+  public void signedMinDividedByMinusOne() {
+    byte[] min = word(BigInteger.ONE.shiftLeft(255));
+    byte[] minusOne = word(MAX);
+    DataWord quotient = new DataWord(min.clone());
+    quotient.sDiv(new DataWord(minusOne.clone()));
+    assertArrayEquals(min, quotient.getData());
+    DataWord remainder = new DataWord(min.clone());
+    remainder.sMod(new DataWord(minusOne.clone()));
+    assertArrayEquals(new byte[32], remainder.getData());
+  }
+
+  @Test
+  public void randomWords() {
+    for (int i = 0; i < RANDOM_ROUNDS; i++) {
+      byte[] a = randomWord();
+      byte[] b = randomWord();
+      checkBinary(a, b);
+      checkTernary(a, b, randomWord());
+      checkUnary(a);
+      checkShifts(a, word(BigInteger.valueOf(random.nextInt(300))));
+      if (i % 8 == 0) {
+        checkExp(a, b);
+      }
+    }
+  }
+
+  @Test
+  public void operandsAreNotModified() {
+    byte[] a = randomWord();
+    byte[] b = randomWord();
+    byte[] copy = a.clone();
+    DataWord word = new DataWord(a);
+    word.mul(new DataWord(b));
+    word.exp(new DataWord(b));
+    word.mulmod(new DataWord(b), new DataWord(b));
+    assertArrayEquals(copy, a);
+  }
+
+  private void checkBinary(byte[] a, byte[] b) {
+    BigInteger ua = unsigned(a);
+    BigInteger ub = unsigned(b);
+    BigInteger sa = signed(a);
+    BigInteger sb = signed(b);
+    boolean zero = ub.signum() == 0;
+
+    check("add", a, b, op(a, b, DataWord::add), ua.add(ub));
+    check("sub", a, b, op(a, b, DataWord::sub), ua.subtract(ub));
+    check("mul", a, b, op(a, b, DataWord::mul), ua.multiply(ub));
+    check("div", a, b, op(a, b, DataWord::div), zero ? BigInteger.ZERO : ua.divide(ub));
+    check("sDiv", a, b, op(a, b, DataWord::sDiv), zero ? BigInteger.ZERO : sa.divide(sb));
+    check("mod", a, b, op(a, b, DataWord::mod), zero ? BigInteger.ZERO : ua.mod(ub));
+    BigInteger sMod = zero ? BigInteger.ZERO : sa.abs().mod(sb.abs());
+    check("sMod", a, b, op(a, b, DataWord::sMod), sa.signum() < 0 ? sMod.negate() : sMod);
+  }
+
+  private void checkTernary(byte[] a, byte[] b, byte[] c) {
+    BigInteger ua = unsigned(a);
+    BigInteger ub = unsigned(b);
+    BigInteger uc = unsigned(c);
+
+    DataWord addmod = new DataWord(a.clone());
+    addmod.addmod(new DataWord(b.clone()), new DataWord(c.clone()));
+    check("addmod", a, b, addmod.getData(),
+        uc.signum() == 0 ? BigInteger.ZERO : ua.add(ub).mod(uc));
+
+    DataWord mulmod = new DataWord(a.clone());
+    mulmod.mulmod(new DataWord(b.clone()), new DataWord(c.clone()));
+    check("mulmod", a, b, mulmod.getData(),
+        uc.signum() == 0 ? BigInteger.ZERO : ua.multiply(ub).mod(uc));
+  }
+
+  private void checkExp(byte[] a, byte[] b) {
+    check("exp", a, b, op(a, b, DataWord::exp),
+        unsigned(a).modPow(unsigned(b), DataWord._2_256));
+  }
+
+  private void checkUnary(byte[] a) {
+    DataWord bnot = new DataWord(a.clone());
+    bnot.bnot();
+    check("bnot", a, a, bnot.getData(), MAX.subtract(unsigned(a)));
+
+    DataWord negate = new DataWord(a.clone());
+    negate.negate();
+    check("negate", a, a, negate.getData(), unsigned(a).negate());
+
+    for (int k = 0; k < DataWord.WORD_SIZE; k++) {
+      DataWord extended = new DataWord(a.clone());
+      extended.signExtend((byte) k);
+      byte[] expected = a.clone();
+      byte fill = signed(a).testBit(k * 8 + 7) ? (byte) 0xff : 0;
+      Arrays.fill(expected, 0, DataWord.WORD_SIZE - 1 - k, fill);
+      if (!Arrays.equals(expected, extended.getData())) {
+        assertArrayEquals("signExtend " + k + " " + Hex.toHexString(a), expected,
+            extended.getData());
+      }
+    }
+  }
+
+  private void checkShifts(byte[] a, byte[] shift) {
+    BigInteger n = unsigned(shift);
+    boolean out = n.compareTo(SHIFT_LIMIT) >= 0;
+    BigInteger ua = unsigned(a);
+    BigInteger sa = signed(a);
+
+    check("shl", a, shift, new DataWord(a.clone()).shiftLeft(new DataWord(shift)).getData(),
+        out ? BigInteger.ZERO : ua.shiftLeft(n.intValue()));
+    check("shr", a, shift, new DataWord(a.clone()).shiftRight(new DataWord(shift)).getData(),
+        out ? BigInteger.ZERO : ua.shiftRight(n.intValue()));
+    BigInteger sar = out ? (sa.signum() < 0 ? BigInteger.ONE.negate() : BigInteger.ZERO)
+        : sa.shiftRight(n.intValue());
+    check("sar", a, shift,
+        new DataWord(a.clone()).shiftRightSigned(new DataWord(shift)).getData(), sar);
+  }
+
+  private static byte[] op(byte[] a, byte[] b, Operation operation) {
+    DataWord word = new DataWord(a.clone());
+    operation.apply(word, new DataWord(b.clone()));
+    return word.getData();
+  }
+
+  private static void check(String name, byte[] a, byte[] b, byte[] actual, BigInteger expected) {
+    byte[] expectedWord = word(expected);
+    if (!Arrays.equals(expectedWord, actual)) {
+      assertArrayEquals(name + " " + Hex.toHexString(a) + " " + Hex.toHexString(b),
+          expectedWord, actual);
+    }
+  }
+
+  private static List<byte[]> edgeValues() {
+    List<byte[]> values = new ArrayList<>();
+    values.add(word(BigInteger.ZERO));
+    values.add(word(BigInteger.ONE));
+    values.add(word(BigInteger.valueOf(2)));
+    values.add(word(BigInteger.ONE.shiftLeft(32)));
+    values.add(word(BigInteger.ONE.shiftLeft(32).subtract(BigInteger.ONE)));
+    values.add(word(BigInteger.ONE.shiftLeft(64)));
+    values.add(word(BigInteger.ONE.shiftLeft(128).subtract(BigInteger.ONE)));
+    values.add(word(BigInteger.ONE.shiftLeft(255)));
+    values.add(word(BigInteger.ONE.shiftLeft(255).subtract(BigInteger.ONE)));
+    values.add(word(MAX.subtract(BigInteger.ONE)));
+    values.add(word(MAX));
+    return values;
+  }
+
+  /**
+   * mostly short or sign-filled words, so that divisors of every length and carries across
+   * digits come up.
+   */
+  private byte[] randomWord() {
+    byte[] word = new byte[DataWord.WORD_SIZE];
+    int kind = random.nextInt(6);
+    int length = 1 + random.nextInt(DataWord.WORD_SIZE);
+    for (int i = DataWord.WORD_SIZE - length; i < DataWord.WORD_SIZE; i++) {
+      word[i] = (byte) random.nextInt(256);
+    }
+    if (kind == 0) {
+      Arrays.fill(word, 0, DataWord.WORD_SIZE - length, (byte) 0xff);
+    } else if (kind == 1) {
+      word[DataWord.WORD_SIZE - length] = (byte) 0x80;
+    } else if (kind == 2) {
+      word[random.nextInt(DataWord.WORD_SIZE)] = (byte) random.nextInt(3);
+    }
+    return word;
+  }
+
+  private static byte[] word(BigInteger value) {
+    return ByteUtil.copyToArray(value.and(MAX));
+  }
+
+  private static BigInteger unsigned(byte[] word) {
+    return new BigInteger(1, word);
+  }
+
+  private static BigInteger signed(byte[] word) {
+    return new BigInteger(word);
+  }
+
+  private interface Operation {
+
+    void apply(DataWord word, DataWord other);
+  }
+}
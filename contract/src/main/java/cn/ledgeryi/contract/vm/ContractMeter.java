@@ -0,0 +1,67 @@
+package cn.ledgeryi.contract.vm;
+
+import cn.ledgeryi.common.core.db.ByteArrayWrapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.spongycastle.util.encoders.Hex;
+
+/**
+ * Per-contract execution metering of this node: calls, tier units, wall time and timeouts.
+ */
+@Slf4j(topic = "VM")
+public class ContractMeter {
+
+  private static final Cache<ByteArrayWrapper, ContractMeter> METERS = CacheBuilder.newBuilder()
+      .maximumSize(10_000).build();
+
+  private final LongAdder calls = new LongAdder();
+  private final LongAdder cpuTime = new LongAdder();
+  private final LongAdder wallTimeInUs = new LongAdder();
+  private final LongAdder timeouts = new LongAdder();
+
+  public static void record(byte[] contractAddress, long cpuTime, long wallTimeInUs,
+      boolean timeout) {
+    ByteArrayWrapper key = new ByteArrayWrapper(contractAddress);
+    ContractMeter meter = METERS.asMap().computeIfAbsent(key, k -> new ContractMeter());
+    meter.calls.increment();
+    meter.cpuTime.add(cpuTime);
+    meter.wallTimeInUs.add(wallTimeInUs);
+    if (timeout) {
+      meter.timeouts.increment();
+      log.warn("contract {} exceeds the cpu time limit, cpu time:{}, wall time:{}us",
+          Hex.toHexString(contractAddress), cpuTime, wallTimeInUs);
+    }
+  }
+
+  /**
+   * contract address in hex -> [calls, cpu time, wall time in us, timeouts], the contracts that
+   * used the most cpu time first.
+   */
+  public static Map<String, long[]> snapshot(int limit) {
+    Map<String, long[]> result = new LinkedHashMap<>();
+    METERS.asMap().entrySet().stream()
+        .map(e -> new SimpleEntry<>(e.getKey(), new long[]{e.getValue().calls.sum(),
+            e.getValue().cpuTime.sum(), e.getValue().wallTimeInUs.sum(),
+            e.getValue().timeouts.sum()}))
+        .sorted((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]))
+        .limit(limit)
+        .forEach(e -> result.put(Hex.toHexString(e.getKey().getData()), e.getValue()));
+    return result;
+  }
+
+  /**
+   * one line per contract of {@link #snapshot(int)}.
+   */
+  public static String report(int limit) {
+    StringBuilder sb = new StringBuilder();
+    snapshot(limit).forEach((address, v) -> sb.append("\n  ").append(address)
+        .append(" calls:").append(v[0]).append(" cpu time:").append(v[1])
+        .append(" wall time:").append(v[2]).append("us timeouts:").append(v[3]));
+    return sb.toString();
+  }
+}
@@ -46,6 +46,8 @@ public class LedgerYiVmActuator implements VmActuator {
   private VmConfig vmConfig = VmConfig.getInstance();
   private InternalTransaction rootInternalTransaction;
   private InternalTransaction.ExecutorType executorType;
+  private long vmStartInUs;
+  private long vmShouldEndInUs;
 
   @Getter
   @Setter
@@ -84,6 +86,14 @@ public class LedgerYiVmActuator implements VmActuator {
       this.executorType = InternalTransaction.ExecutorType.ET_PRE_TYPE;
     }
 
+    // a deadline would make the result depend on the machine, so it is only set where the result
+    // is not part of consensus: block production, pending admission and constant calls
+    if (!isCheckTransaction()) {
+      vmStartInUs = System.nanoTime() / 1000;
+      vmShouldEndInUs = vmStartInUs
+          + repository.getDynamicPropertiesStore().getMaxCpuTimeOfOneTx() * 1000;
+    }
+
     switch (contractType.getNumber()) {
       case Protocol.Transaction.Contract.ContractType.TriggerSmartContract_VALUE:
         txType = InternalTransaction.TxType.TX_CONTRACT_CALL_TYPE;
@@ -107,10 +117,25 @@ public class LedgerYiVmActuator implements VmActuator {
     ProgramResult result = context.getProgramResult();
     try {
       if (vm != null) {
-        vm.play(program);
+        long start = System.nanoTime();
+        try {
+          vm.play(program);
+        } catch (Program.OutOfTimeException e) {
+          ContractMeter.record(program.getContractAddress().getNoLeadZeroesData(),
+              program.getCpuTimeUsed(), (System.nanoTime() - start) / 1000, true);
+          throw e;
+        }
         result = program.getResult();
 
+        if (InternalTransaction.TxType.TX_CONTRACT_CALL_TYPE == txType) {
+          byte[] contractAddress = program.getContractAddress().getLast20Bytes();
+          StorageHints.record(contractAddress,
+              repository.getStorage(contractAddress).getAccessedKeys());
+        }
+
         long cpuTimeUsed = program.getCpuTimeUsed();
+        ContractMeter.record(program.getContractAddress().getNoLeadZeroesData(), cpuTimeUsed,
+            (System.nanoTime() - start) / 1000, false);
         result.setCpuTimeUsed(cpuTimeUsed);
         repository.putCpuTimeUsedValue(program.getContractAddress().getNoLeadZeroesData(), cpuTimeUsed);
         long storageUsed = program.getStorageUsed();
@@ -145,6 +170,9 @@ public class LedgerYiVmActuator implements VmActuator {
           repository.commit();
         }
       }
+    } catch (Program.OutOfTimeException e) {
+      // dropped by the caller instead of being recorded as a failed transaction
+      throw e;
     } catch (Program.JVMStackOverFlowException e) {
       result = program.getResult();
       result.setException(e);
@@ -206,7 +234,7 @@ public class LedgerYiVmActuator implements VmActuator {
       byte[] ops = newSmartContract.getBytecode().toByteArray();
       rootInternalTransaction = new InternalTransaction(tx, txType);
       ProgramInvoke programInvoke = programInvokeFactory.createProgramInvoke(InternalTransaction.TxType.TX_CONTRACT_CREATION_TYPE,
-              executorType, tx, blockCap.getInstance(), repository, 0, 0);
+              executorType, tx, blockCap.getInstance(), repository, vmStartInUs, vmShouldEndInUs);
       this.vm = new VM();
       this.program = new Program(ops, programInvoke, rootInternalTransaction, vmConfig, isCheckTransaction());
       byte[] txId = TransactionUtil.getTransactionId(tx).getBytes();
@@ -241,13 +269,15 @@ public class LedgerYiVmActuator implements VmActuator {
     byte[] code = repository.getCode(contractAddress);
     if (isNotEmpty(code)) {
       ProgramInvoke programInvoke = programInvokeFactory.createProgramInvoke(InternalTransaction.TxType.TX_CONTRACT_CALL_TYPE,
-              executorType, tx, blockCap.getInstance(), repository, 0, 0);
+              executorType, tx, blockCap.getInstance(), repository, vmStartInUs, vmShouldEndInUs);
       if (isConstantCall) {
         programInvoke.setConstantCall();
       }
       this.vm = new VM();
       rootInternalTransaction = new InternalTransaction(tx, txType);
       this.program = new Program(code, programInvoke, rootInternalTransaction, vmConfig, isCheckTransaction());
+      this.program.setCodeHash(deployedContract.getCodeHash());
+      repository.prefetchStorage(contractAddress, StorageHints.get(contractAddress));
       byte[] txId = TransactionUtil.getTransactionId(tx).getBytes();
       this.program.setRootTransactionId(txId);
     }
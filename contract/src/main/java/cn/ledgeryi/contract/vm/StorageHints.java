@@ -0,0 +1,42 @@
+package cn.ledgeryi.contract.vm;
+
+import cn.ledgeryi.common.core.db.ByteArrayWrapper;
+import cn.ledgeryi.common.runtime.vm.DataWord;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Storage keys a contract read or wrote in its latest call on this node, the next call prefetches
+ * their rows in one batch. Keys are kept in first access order up to {@link #MAX_KEYS}. A hint
+ * only warms the row cache, a stale one costs an extra read.
+ */
+public class StorageHints {
+
+  private static final int MAX_KEYS = 256;
+
+  private static final Cache<ByteArrayWrapper, List<DataWord>> HINTS = CacheBuilder.newBuilder()
+      .maximumSize(10_000).build();
+
+  public static List<DataWord> get(byte[] contractAddress) {
+    List<DataWord> keys = HINTS.getIfPresent(new ByteArrayWrapper(contractAddress));
+    return keys == null ? Collections.emptyList() : keys;
+  }
+
+  public static void record(byte[] contractAddress, Collection<DataWord> keys) {
+    if (keys.isEmpty()) {
+      return;
+    }
+    List<DataWord> hint = new ArrayList<>(Math.min(keys.size(), MAX_KEYS));
+    for (DataWord key : keys) {
+      if (hint.size() == MAX_KEYS) {
+        break;
+      }
+      hint.add(key.clone());
+    }
+    HINTS.put(new ByteArrayWrapper(contractAddress), Collections.unmodifiableList(hint));
+  }
+}
@@ -52,24 +52,20 @@ public class VM {
     }
   }
 
+  /**
+   * execute one instruction, without any trace or listener hook.
+   */
   public void step(Program program) {
-    if (config.vmTrace()) {
-      program.saveOpTrace();
-    }
-
     try {
-      OpCode op = code(program.getCurrentOp());
+      OpCode op = program.getCurrentOpCode();
       if (op == null) {
         throw Program.Exception.invalidOpCode(program.getCurrentOp());
       }
-      log.debug("current exec code: " + op.toString());
 
       program.setLastOp(op.val());
       program.verifyStackOverflow(op.require(), op.ret());
 
-      long currentCpuTimeUsed = op.getTier().asInt();
-      long CpuTimeUsedTotal = program.getCpuTimeUsed();
-      program.setCpuTimeUsed(CpuTimeUsedTotal + currentCpuTimeUsed);
+      program.spendCpuTime(op);
       Stack stack = program.getStack();
 
       switch (op) {
@@ -706,9 +702,10 @@ public class VM {
         case PUSH30:
         case PUSH31:
         case PUSH32: {
+          DataWord data = program.getPushWord();
           program.step();
           int nPush = op.val() - PUSH1.val() + 1;
-          byte[] data = program.sweep(nPush);
+          program.skip(nPush);
           program.stackPush(data);
           break;
         }
@@ -816,6 +813,22 @@ public class VM {
       log.info("VM halted: [{}]", e.getMessage());
       program.stop();
       throw e;
+    }
+  }
+
+  /**
+   * execute one instruction, recording the vm trace and the full trace around it.
+   */
+  private void tracedStep(Program program) {
+    if (config.vmTrace()) {
+      program.saveOpTrace();
+    }
+
+    try {
+      if (log.isDebugEnabled()) {
+        log.debug("current exec code: {}", program.getCurrentOpCode());
+      }
+      step(program);
     } finally {
       program.fullTrace();
     }
@@ -827,10 +840,20 @@ public class VM {
         return;
       }
 
-      while (!program.isStopped()) {
-        this.step(program);
+      // decided once per program, so the untraced loop carries no per instruction checks
+      if (program.isTraced()) {
+        while (!program.isStopped()) {
+          this.tracedStep(program);
+        }
+      } else {
+        while (!program.isStopped()) {
+          this.step(program);
+        }
       }
 
+    } catch (Program.OutOfTimeException e) {
+      // not a result of the transaction, the caller drops it
+      throw e;
     } catch (RuntimeException e) {
       if (StringUtils.isEmpty(e.getMessage())) {
         log.warn("Unknown Exception occurred, tx id: {}", Hex.toHexString(program.getRootTransactionId()), e);
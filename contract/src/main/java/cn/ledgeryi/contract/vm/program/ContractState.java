@@ -30,6 +30,7 @@ import cn.ledgeryi.contract.vm.repository.Key;
 import cn.ledgeryi.contract.vm.repository.Repository;
 import cn.ledgeryi.contract.vm.repository.Value;
 import cn.ledgeryi.protos.Protocol;
+import java.util.Collection;
 
 public class ContractState implements Repository, ProgramListenerAware {
 
@@ -166,6 +167,11 @@ public class ContractState implements Repository, ProgramListenerAware {
     return repository.getStorage(address);
   }
 
+  @Override
+  public void prefetchStorage(byte[] address, Collection<DataWord> keys) {
+    repository.prefetchStorage(address, keys);
+  }
+
   @Override
   public void putAccountValue(byte[] address, AccountCapsule accountCapsule) {
     this.repository.putAccountValue(address, accountCapsule);
@@ -22,6 +22,7 @@ import cn.ledgeryi.common.utils.ByteUtil;
 import cn.ledgeryi.contract.vm.program.listener.ProgramListener;
 import cn.ledgeryi.contract.vm.program.listener.ProgramListenerAware;
 
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -29,12 +30,18 @@ import static java.lang.Math.ceil;
 import static java.lang.Math.min;
 import static java.lang.String.format;
 
+/**
+ * Contiguous program memory. The backing array grows by doubling, while {@link #internalSize()}
+ * still advances in {@code CHUNK_SIZE} steps and {@link #size()} in words as before.
+ */
 public class Memory implements ProgramListenerAware {
 
   private static final int CHUNK_SIZE = 1024;
   private static final int WORD_SIZE = 32;
+  private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
 
-  private List<byte[]> chunks = new LinkedList<>();
+  private byte[] buffer = ByteUtil.EMPTY_BYTE_ARRAY;
+  private int internalSize;
   private int softSize;
   private ProgramListener programListener;
 
@@ -49,27 +56,7 @@ public class Memory implements ProgramListenerAware {
     }
 
     extend(address, size);
-    byte[] data = new byte[size];
-
-    int chunkIndex = address / CHUNK_SIZE;
-    int chunkOffset = address % CHUNK_SIZE;
-
-    int toGrab = data.length;
-    int start = 0;
-
-    while (toGrab > 0) {
-      int copied = grabMax(chunkIndex, chunkOffset, toGrab, data, start);
-
-      // read next chunk from the start
-      ++chunkIndex;
-      chunkOffset = 0;
-
-      // mark remind
-      toGrab -= copied;
-      start += copied;
-    }
-
-    return data;
+    return Arrays.copyOfRange(buffer, address, address + size);
   }
 
   public void write(int address, byte[] data, int dataSize, boolean limited) {
@@ -82,9 +69,6 @@ public class Memory implements ProgramListenerAware {
       extend(address, dataSize);
     }
 
-    int chunkIndex = address / CHUNK_SIZE;
-    int chunkOffset = address % CHUNK_SIZE;
-
     int toCapture = 0;
     if (limited) {
       toCapture = (address + dataSize > softSize) ? softSize - address : dataSize;
@@ -92,17 +76,8 @@ public class Memory implements ProgramListenerAware {
       toCapture = dataSize;
     }
 
-    int start = 0;
-    while (toCapture > 0) {
-      int captured = captureMax(chunkIndex, chunkOffset, toCapture, data, start);
-
-      // capture next chunk
-      ++chunkIndex;
-      chunkOffset = 0;
-
-      // mark remind
-      toCapture -= captured;
-      start += captured;
+    if (toCapture > 0) {
+      System.arraycopy(data, 0, buffer, address, toCapture);
     }
 
     if (programListener != null) {
@@ -121,9 +96,11 @@ public class Memory implements ProgramListenerAware {
     }
 
     final int newSize = Math.addExact(address, size);
-    int toAllocate = newSize - internalSize();
+    int toAllocate = newSize - internalSize;
     if (toAllocate > 0) {
-      addChunks((int) ceil((double) toAllocate / CHUNK_SIZE));
+      int chunks = (int) ceil((double) toAllocate / CHUNK_SIZE);
+      internalSize = Math.addExact(internalSize, Math.multiplyExact(chunks, CHUNK_SIZE));
+      ensureCapacity(internalSize);
     }
 
     toAllocate = newSize - softSize;
@@ -137,19 +114,30 @@ public class Memory implements ProgramListenerAware {
     }
   }
 
+  private void ensureCapacity(int capacity) {
+    if (capacity <= buffer.length) {
+      return;
+    }
+    int newCapacity = (int) min(MAX_CAPACITY, Math.max((long) buffer.length << 1, capacity));
+    if (newCapacity < capacity) {
+      newCapacity = capacity;
+    }
+    buffer = Arrays.copyOf(buffer, newCapacity);
+  }
+
   public DataWord readWord(int address) {
-    return new DataWord(read(address, 32));
+    extend(address, WORD_SIZE);
+    byte[] word = new byte[WORD_SIZE];
+    System.arraycopy(buffer, address, word, 0, WORD_SIZE);
+    return new DataWord(word);
   }
 
   // just access expecting all data valid
   public byte readByte(int address) {
-
-    int chunkIndex = address / CHUNK_SIZE;
-    int chunkOffset = address % CHUNK_SIZE;
-
-    byte[] chunk = chunks.get(chunkIndex);
-
-    return chunk[chunkOffset];
+    if (address >= internalSize) {
+      throw new IndexOutOfBoundsException("Index: " + address + ", Size: " + internalSize);
+    }
+    return buffer[address];
   }
 
   @Override
@@ -190,35 +178,14 @@ public class Memory implements ProgramListenerAware {
   }
 
   public int internalSize() {
-    return chunks.size() * CHUNK_SIZE;
+    return internalSize;
   }
 
   public List<byte[]> getChunks() {
-    return new LinkedList<>(chunks);
-  }
-
-  private int captureMax(int chunkIndex, int chunkOffset, int size, byte[] src, int srcPos) {
-
-    byte[] chunk = chunks.get(chunkIndex);
-    int toCapture = min(size, chunk.length - chunkOffset);
-
-    System.arraycopy(src, srcPos, chunk, chunkOffset, toCapture);
-    return toCapture;
-  }
-
-  private int grabMax(int chunkIndex, int chunkOffset, int size, byte[] dest, int destPos) {
-
-    byte[] chunk = chunks.get(chunkIndex);
-    int toGrab = min(size, chunk.length - chunkOffset);
-
-    System.arraycopy(chunk, chunkOffset, dest, destPos, toGrab);
-
-    return toGrab;
-  }
-
-  private void addChunks(int num) {
-    for (int i = 0; i < num; ++i) {
-      chunks.add(new byte[CHUNK_SIZE]);
+    List<byte[]> chunks = new LinkedList<>();
+    for (int offset = 0; offset < internalSize; offset += CHUNK_SIZE) {
+      chunks.add(Arrays.copyOfRange(buffer, offset, offset + CHUNK_SIZE));
     }
+    return chunks;
   }
 }
@@ -74,6 +74,7 @@ public class Program {
     private VmConfig config;
     private boolean stopped;
     private long cpuTimeUsed;
+    private long nextTimeCheck = TIME_CHECK_INTERVAL;
     private long storageUsed;
     private ProgramTrace trace;
     private ProgramInvoke invoke;
@@ -85,6 +86,7 @@ public class Program {
     private ContractState contractState;
     private ProgramTraceListener traceListener;
     private ProgramPrecompile programPrecompile;
+    private byte[] codeHash;
     private InternalTransaction internalTransaction;
     private ProgramResult result = new ProgramResult();
     private CompositeProgramListener programListener = new CompositeProgramListener();
@@ -93,6 +95,7 @@ public class Program {
 
     private static final int MAX_DEPTH = 64;
     private static final int MAX_STACK_SIZE = 1024;
+    private static final long TIME_CHECK_INTERVAL = 1_000;
     private static final String VALIDATE_FOR_SMART_CONTRACT_FAILURE = "validateForSmartContract failure:%s";
 
     public Program(byte[] ops, ProgramInvoke programInvoke, InternalTransaction internalTransaction, VmConfig config,
@@ -106,8 +109,9 @@ public class Program {
         this.internalTransaction = internalTransaction;
         this.ops = ArrayUtils.nullToEmpty(ops);
         this.traceListener = new ProgramTraceListener(config.vmTrace());
-        this.memory = setupProgramListener(new Memory());
-        this.stack = setupProgramListener(new Stack());
+        // memory and stack events only feed the vm trace, leave the listener off otherwise
+        this.memory = config.vmTrace() ? setupProgramListener(new Memory()) : new Memory();
+        this.stack = config.vmTrace() ? setupProgramListener(new Stack()) : new Stack();
         this.contractState = setupProgramListener(new ContractState(programInvoke));
         this.trace = new ProgramTrace(config, programInvoke);
         this.nonce = internalTransaction.getNonce();
@@ -253,11 +257,18 @@ public class Program {
 
     public ProgramPrecompile getProgramPrecompile() {
         if (programPrecompile == null) {
-            programPrecompile = ProgramPrecompile.compile(ops);
+            programPrecompile = ProgramPrecompile.compile(codeHash, ops);
         }
         return programPrecompile;
     }
 
+    /**
+     * hash of the deployed code, lets programs of the same contract share one precompile.
+     */
+    public void setCodeHash(byte[] codeHash) {
+        this.codeHash = codeHash;
+    }
+
     public int getCallDeep() {
         return invoke.getCallDeep();
     }
@@ -296,6 +307,17 @@ public class Program {
         return ArrayUtils.isEmpty(ops) ? 0 : ops[pc];
     }
 
+    public OpCode getCurrentOpCode() {
+        return ArrayUtils.isEmpty(ops) ? OpCode.STOP : getProgramPrecompile().getOp(pc);
+    }
+
+    /**
+     * immediate of the PUSH at the current pc, a copy the caller owns.
+     */
+    public DataWord getPushWord() {
+        return getProgramPrecompile().getPushWord(ops, pc);
+    }
+
     /**
      * Last Op can only be set publicly (no getLastOp method), is used for logging.
      */
@@ -371,6 +393,20 @@ public class Program {
         setPC(pc + 1);
     }
 
+    /**
+     * moves the pc like {@link #sweep(int)} without copying the bytes.
+     */
+    public void skip(int n) {
+        if (pc + n > ops.length) {
+            stop();
+        }
+
+        pc += n;
+        if (pc >= ops.length) {
+            stop();
+        }
+    }
+
     public byte[] sweep(int n) {
 
         if (pc + n > ops.length) {
@@ -556,6 +592,10 @@ public class Program {
             }
             VM vm = new VM(config);
             Program program = new Program(programCode, programInvoke, internalTx, config);
+            ContractCapsule codeContract = getContractState().getContract(codeAddress);
+            if (codeContract != null) {
+                program.setCodeHash(codeContract.getCodeHash());
+            }
             program.setRootTransactionId(this.rootTransactionId);
             vm.play(program);
             callResult = program.getResult();
@@ -761,6 +801,28 @@ public class Program {
         this.cpuTimeUsed = cpuTimeUsed;
     }
 
+    /**
+     * adds the tier of an executed op, the clock is only read once per {@code TIME_CHECK_INTERVAL}
+     * tier units.
+     */
+    public void spendCpuTime(OpCode op) {
+        cpuTimeUsed += op.getTier().asInt();
+        if (cpuTimeUsed >= nextTimeCheck) {
+            nextTimeCheck = cpuTimeUsed + TIME_CHECK_INTERVAL;
+            checkCpuTimeLimit(op.name());
+        }
+    }
+
+    /**
+     * a deadline is only set where the result is not part of consensus, see LedgerYiVmActuator.
+     */
+    public void checkCpuTimeLimit(String opName) {
+        long vmShouldEndInUs = getVmShouldEndInUs();
+        if (vmShouldEndInUs > 0 && System.nanoTime() / 1000 > vmShouldEndInUs) {
+            throw Exception.notEnoughTime(opName);
+        }
+    }
+
     public long getStorageUsed() {
         return storageUsed;
     }
@@ -777,6 +839,13 @@ public class Program {
         return memory.toString();
     }
 
+    /**
+     * whether the vm has to run the traced loop for this program.
+     */
+    public boolean isTraced() {
+        return config.vmTrace() || listener != null || log.isTraceEnabled();
+    }
+
     public void fullTrace() {
         if (log.isTraceEnabled() || listener != null) {
 
@@ -1072,6 +1141,13 @@ public class Program {
         }
     }
 
+    @SuppressWarnings("serial")
+    public static class OutOfTimeException extends BytecodeExecutionException {
+        public OutOfTimeException(String message, Object... args) {
+            super(format(message, args));
+        }
+    }
+
     public static class Exception {
 
         private Exception() {
@@ -1093,6 +1169,10 @@ public class Program {
         public static StackTooSmallException tooSmallStack(int expectedSize, int actualSize) {
             return new StackTooSmallException("Expected stack size %d but actual %d;", expectedSize, actualSize);
         }
+
+        public static OutOfTimeException notEnoughTime(String op) {
+            return new OutOfTimeException("CPU timeout for '%s' operation executing", op);
+        }
     }
 
     @SuppressWarnings("serial")
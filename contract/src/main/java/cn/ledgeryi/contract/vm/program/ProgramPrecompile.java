@@ -17,42 +17,88 @@
  */
 package cn.ledgeryi.contract.vm.program;
 
+import cn.ledgeryi.common.core.db.ByteArrayWrapper;
 import cn.ledgeryi.common.runtime.vm.DataWord;
 import cn.ledgeryi.contract.vm.OpCode;
 import cn.ledgeryi.contract.vm.config.VmConfig;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ArrayUtils;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.BitSet;
 
-
-@Slf4j(topic = "VM")
 /**
  * Created by Anton Nashatyrev on 06.02.2017.
  */
+@Slf4j(topic = "VM")
 public class ProgramPrecompile {
 
-  private Set<Integer> jumpdest = new HashSet<>();
-
-  public static ProgramPrecompile compile(byte[] ops) {
-    ProgramPrecompile ret = new ProgramPrecompile();
+  // deployed code is immutable, so a compiled program is shared by every call with the same code hash
+  private static final Cache<ByteArrayWrapper, ProgramPrecompile> CACHE = CacheBuilder.newBuilder()
+      .maximumWeight(64L << 20)
+      .weigher((ByteArrayWrapper codeHash, ProgramPrecompile precompile) -> precompile.weight)
+      .recordStats()
+      .build();
+
+  private final BitSet jumpdest = new BitSet();
+  private final OpCode[] instructions;
+  private final DataWord[] pushWords;
+  private final int weight;
+
+  private ProgramPrecompile(byte[] ops) {
+    this.instructions = new OpCode[ops.length];
+    this.pushWords = new DataWord[ops.length];
+    for (int i = 0; i < ops.length; ++i) {
+      instructions[i] = OpCode.code(ops[i]);
+    }
+    int pushes = 0;
     for (int i = 0; i < ops.length; ++i) {
 
-      OpCode op = OpCode.code(ops[i]);
+      OpCode op = instructions[i];
       if (op == null) {
         continue;
       }
 
       if (op.equals(OpCode.JUMPDEST)) {
         log.debug("JUMPDEST:" + i);
-        ret.jumpdest.add(i);
+        jumpdest.set(i);
       }
 
       if (op.asInt() >= OpCode.PUSH1.asInt() && op.asInt() <= OpCode.PUSH32.asInt()) {
-        i += op.asInt() - OpCode.PUSH1.asInt() + 1;
+        int nPush = op.asInt() - OpCode.PUSH1.asInt() + 1;
+        pushWords[i] = pushWord(ops, i, nPush);
+        pushes++;
+        i += nPush;
       }
     }
-    return ret;
+    this.weight = ops.length * 16 + pushes * 64;
+  }
+
+  public static ProgramPrecompile compile(byte[] ops) {
+    return new ProgramPrecompile(ops);
+  }
+
+  /**
+   * compile once per code hash, programs without a known code hash are compiled every time.
+   */
+  public static ProgramPrecompile compile(byte[] codeHash, byte[] ops) {
+    if (ArrayUtils.isEmpty(codeHash)) {
+      return compile(ops);
+    }
+    ByteArrayWrapper key = new ByteArrayWrapper(codeHash);
+    ProgramPrecompile precompile = CACHE.getIfPresent(key);
+    if (precompile == null) {
+      precompile = compile(ops);
+      CACHE.put(key, precompile);
+    }
+    return precompile;
+  }
+
+  private static DataWord pushWord(byte[] ops, int pc, int nPush) {
+    // bytes past the end of the code read as zero, like Program.sweep
+    return new DataWord(Arrays.copyOfRange(ops, pc + 1, pc + 1 + nPush));
   }
 
   public static byte[] getCode(byte[] ops) {
@@ -89,6 +135,23 @@ public class ProgramPrecompile {
   }
 
   public boolean hasJumpDest(int pc) {
-    return jumpdest.contains(pc);
+    return pc >= 0 && jumpdest.get(pc);
+  }
+
+  public OpCode getOp(int pc) {
+    return instructions[pc];
+  }
+
+  /**
+   * immediate of the PUSH at pc. the cached words are shared by every program running this code,
+   * so the caller always gets its own copy.
+   */
+  public DataWord getPushWord(byte[] ops, int pc) {
+    DataWord word = pushWords[pc];
+    if (word == null) {
+      OpCode op = instructions[pc];
+      return pushWord(ops, pc, op.asInt() - OpCode.PUSH1.asInt() + 1);
+    }
+    return word.clone();
   }
 }
@@ -21,33 +21,70 @@ import cn.ledgeryi.common.runtime.vm.DataWord;
 import cn.ledgeryi.contract.vm.program.listener.ProgramListener;
 import cn.ledgeryi.contract.vm.program.listener.ProgramListenerAware;
 
+import java.util.Arrays;
+import java.util.EmptyStackException;
 import java.util.Objects;
 
-public class Stack extends java.util.Stack<DataWord> implements ProgramListenerAware {
+/**
+ * Operand stack of one {@link Program}. A program runs on a single thread, so the words sit in a
+ * plain array of the maximum depth and nothing is synchronized.
+ */
+public class Stack implements ProgramListenerAware {
 
-  private static final long serialVersionUID = 1;
+  public static final int MAX_SIZE = 1024;
 
-  private transient ProgramListener programListener;
+  private final DataWord[] words = new DataWord[MAX_SIZE];
+  private int size;
+  private ProgramListener programListener;
 
   @Override
   public void setProgramListener(ProgramListener listener) {
     this.programListener = listener;
   }
 
-  @Override
-  public synchronized DataWord pop() {
+  public DataWord pop() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
     if (programListener != null) {
       programListener.onStackPop();
     }
-    return super.pop();
+    DataWord item = words[--size];
+    words[size] = null;
+    return item;
   }
 
-  @Override
   public DataWord push(DataWord item) {
+    if (size == MAX_SIZE) {
+      throw new ArrayIndexOutOfBoundsException("stack is full: " + MAX_SIZE);
+    }
     if (programListener != null) {
       programListener.onStackPush(item);
     }
-    return super.push(item);
+    words[size++] = item;
+    return item;
+  }
+
+  public DataWord peek() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
+    return words[size - 1];
+  }
+
+  public DataWord get(int index) {
+    if (!isAccessible(index)) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return words[index];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
   }
 
   public void swap(int from, int to) {
@@ -55,13 +92,14 @@ public class Stack extends java.util.Stack<DataWord> implements ProgramListenerA
       if (programListener != null) {
         programListener.onStackSwap(from, to);
       }
-      DataWord tmp = get(from);
-      set(from, set(to, tmp));
+      DataWord tmp = words[from];
+      words[from] = words[to];
+      words[to] = tmp;
     }
   }
 
   private boolean isAccessible(int from) {
-    return from >= 0 && from < size();
+    return from >= 0 && from < size;
   }
 
   @Override
@@ -75,16 +113,30 @@ public class Stack extends java.util.Stack<DataWord> implements ProgramListenerA
     if (o.getClass() != this.getClass()) {
       return false;
     }
-    if (!super.equals(o)) {
+    Stack dataWords = (Stack) o;
+    if (size != dataWords.size) {
       return false;
     }
-    Stack dataWords = (Stack) o;
+    for (int i = 0; i < size; i++) {
+      if (!Objects.equals(words[i], dataWords.words[i])) {
+        return false;
+      }
+    }
     return Objects.equals(programListener, dataWords.programListener);
   }
 
 
   @Override
   public int hashCode() {
-    return Objects.hash(super.hashCode(), programListener);
+    int result = 1;
+    for (int i = 0; i < size; i++) {
+      result = 31 * result + Objects.hashCode(words[i]);
+    }
+    return Objects.hash(result, programListener);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(Arrays.copyOf(words, size));
   }
 }
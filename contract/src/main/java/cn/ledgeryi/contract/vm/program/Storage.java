@@ -1,14 +1,21 @@
 package cn.ledgeryi.contract.vm.program;
 
 import cn.ledgeryi.chainbase.core.capsule.StorageRowCapsule;
+import cn.ledgeryi.chainbase.core.db2.common.WrappedByteArray;
 import cn.ledgeryi.chainbase.core.store.StorageRowStore;
 import cn.ledgeryi.common.runtime.vm.DataWord;
 import cn.ledgeryi.common.utils.ByteUtil;
 import cn.ledgeryi.crypto.utils.Hash;
 import lombok.Getter;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static java.lang.System.arraycopy;
 
@@ -16,6 +23,11 @@ public class Storage {
     private static final int PREFIX_BYTES = 16;
     @Getter
     private final Map<DataWord, StorageRowCapsule> rowCache = new HashMap<>();
+    // keys known to have no row, so a miss is only read once
+    private final Set<DataWord> absentKeys = new HashSet<>();
+    // keys read or written by the executions, in first access order; prefetched rows are not in it
+    @Getter
+    private final Set<DataWord> accessedKeys = new LinkedHashSet<>();
     @Getter
     private byte[] addrHash;
     @Getter
@@ -37,6 +49,8 @@ public class Storage {
             StorageRowCapsule newRow = new StorageRowCapsule(row);
             this.rowCache.put(rowKey.clone(), newRow);
         });
+        storage.absentKeys.forEach(key -> this.absentKeys.add(key.clone()));
+        storage.accessedKeys.forEach(key -> this.accessedKeys.add(key.clone()));
     }
 
     private static byte[] compose(byte[] key, byte[] addrHash) {
@@ -60,14 +74,25 @@ public class Storage {
 
     public void generateAddrHash(byte[] txId) {
         addrHash = addrHash(address, txId);
+        absentKeys.clear();
+    }
+
+    private void access(DataWord key) {
+        if (!accessedKeys.contains(key)) {
+            accessedKeys.add(key.clone());
+        }
     }
 
     public DataWord getValue(DataWord key) {
+        access(key);
         if (rowCache.containsKey(key)) {
             return new DataWord(rowCache.get(key).getValue());
+        } else if (absentKeys.contains(key)) {
+            return null;
         } else {
             StorageRowCapsule row = store.get(compose(key.getData(), addrHash));
             if (row == null || row.getInstance() == null) {
+                absentKeys.add(key);
                 return null;
             }
             rowCache.put(key, row);
@@ -75,7 +100,35 @@ public class Storage {
         }
     }
 
+    /**
+     * read the rows of the keys that are not cached yet in one batch.
+     */
+    public void prefetch(Collection<DataWord> keys) {
+        Map<WrappedByteArray, DataWord> pending = new HashMap<>();
+        for (DataWord key : keys) {
+            if (!rowCache.containsKey(key) && !absentKeys.contains(key)) {
+                pending.put(WrappedByteArray.of(compose(key.getData(), addrHash)), key);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<byte[]> rowKeys = new ArrayList<>(pending.size());
+        pending.keySet().forEach(rowKey -> rowKeys.add(rowKey.getBytes()));
+        Map<WrappedByteArray, StorageRowCapsule> rows = store.getBatch(rowKeys);
+        pending.forEach((rowKey, key) -> {
+            StorageRowCapsule row = rows.get(rowKey);
+            if (row == null || row.getInstance() == null) {
+                absentKeys.add(key);
+            } else {
+                rowCache.put(key, row);
+            }
+        });
+    }
+
     public void put(DataWord key, DataWord value) {
+        access(key);
+        absentKeys.remove(key);
         if (rowCache.containsKey(key)) {
             rowCache.get(key).setValue(value.getData());
         } else {
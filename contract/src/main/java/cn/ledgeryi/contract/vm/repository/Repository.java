@@ -5,6 +5,7 @@ import cn.ledgeryi.chainbase.core.store.DynamicPropertiesStore;
 import cn.ledgeryi.common.runtime.vm.DataWord;
 import cn.ledgeryi.contract.vm.program.Storage;
 import cn.ledgeryi.protos.Protocol;
+import java.util.Collection;
 
 public interface Repository {
 
@@ -42,6 +43,8 @@ public interface Repository {
 
   Storage getStorage(byte[] address);
 
+  void prefetchStorage(byte[] address, Collection<DataWord> keys);
+
   Repository newRepositoryChild();
 
   void setParent(Repository deposit);
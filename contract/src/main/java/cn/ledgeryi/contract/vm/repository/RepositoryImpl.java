@@ -26,6 +26,7 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.spongycastle.util.Strings;
 
+import java.util.Collection;
 import java.util.HashMap;
 
 import static cn.ledgeryi.chainbase.core.config.Parameter.ChainConstant.BLOCK_PRODUCED_INTERVAL;
@@ -100,7 +101,7 @@ public class RepositoryImpl implements Repository {
   public AccountCapsule createAccount(byte[] address, AccountType type) {
     Key key = new Key(address);
     AccountCapsule account = new AccountCapsule(ByteString.copyFrom(address), type);
-    accountCache.put(key, new Value(account.getData(), Type.VALUE_TYPE_CREATE));
+    accountCache.put(key, Value.create(account, Type.VALUE_TYPE_CREATE));
     return account;
   }
 
@@ -108,7 +109,7 @@ public class RepositoryImpl implements Repository {
   public AccountCapsule createAccount(byte[] address, String accountName, AccountType type) {
     Key key = new Key(address);
     AccountCapsule account = new AccountCapsule(ByteString.copyFrom(address), ByteString.copyFromUtf8(accountName), type);
-    accountCache.put(key, new Value(account.getData(), Type.VALUE_TYPE_CREATE));
+    accountCache.put(key, Value.create(account, Type.VALUE_TYPE_CREATE));
     return account;
   }
 
@@ -127,7 +128,7 @@ public class RepositoryImpl implements Repository {
     }
 
     if (accountCapsule != null) {
-      accountCache.put(key, Value.create(accountCapsule.getData()));
+      accountCache.put(key, Value.create(accountCapsule, Type.VALUE_TYPE_NORMAL));
     }
     return accountCapsule;
   }
@@ -166,7 +167,7 @@ public class RepositoryImpl implements Repository {
   @Override
   public void createContract(byte[] address, ContractCapsule contractCapsule) {
     Key key = Key.create(address);
-    Value value = Value.create(contractCapsule.getData(), Type.VALUE_TYPE_CREATE);
+    Value value = Value.create(contractCapsule, Type.VALUE_TYPE_CREATE);
     contractCache.put(key, value);
   }
 
@@ -183,7 +184,7 @@ public class RepositoryImpl implements Repository {
       contractCapsule = getContractStore().get(address);
     }
     if (contractCapsule != null) {
-      contractCache.put(key, Value.create(contractCapsule.getData()));
+      contractCache.put(key, Value.create(contractCapsule, Type.VALUE_TYPE_NORMAL));
     }
     return contractCapsule;
   }
@@ -191,14 +192,14 @@ public class RepositoryImpl implements Repository {
   @Override
   public void updateContract(byte[] address, ContractCapsule contractCapsule) {
     Key key = Key.create(address);
-    Value value = Value.create(contractCapsule.getData(), Type.VALUE_TYPE_DIRTY);
+    Value value = Value.create(contractCapsule, Type.VALUE_TYPE_DIRTY);
     contractCache.put(key, value);
   }
 
   @Override
   public void updateAccount(byte[] address, AccountCapsule accountCapsule) {
     Key key = Key.create(address);
-    Value value = Value.create(accountCapsule.getData(), Type.VALUE_TYPE_DIRTY);
+    Value value = Value.create(accountCapsule, Type.VALUE_TYPE_DIRTY);
     accountCache.put(key, value);
   }
 
@@ -267,6 +268,22 @@ public class RepositoryImpl implements Repository {
     return storage.getValue(key);
   }
 
+  @Override
+  public void prefetchStorage(byte[] address, Collection<DataWord> keys) {
+    if (keys.isEmpty() || getAccount(address) == null) {
+      return;
+    }
+    Key addressKey = Key.create(address);
+    Storage storage;
+    if (storageCache.containsKey(addressKey)) {
+      storage = storageCache.get(addressKey);
+    } else {
+      storage = getStorage(address);
+      storageCache.put(addressKey, storage);
+    }
+    storage.prefetch(keys);
+  }
+
   @Override
   public Storage getStorage(byte[] address) {
     Key key = Key.create(address);
@@ -328,7 +345,7 @@ public class RepositoryImpl implements Repository {
   @Override
   public void putAccountValue(byte[] address, AccountCapsule accountCapsule) {
     Key key = new Key(address);
-    accountCache.put(key, new Value(accountCapsule.getData(), Type.VALUE_TYPE_CREATE));
+    accountCache.put(key, Value.create(accountCapsule, Type.VALUE_TYPE_CREATE));
   }
 
   @Override
@@ -436,7 +453,7 @@ public class RepositoryImpl implements Repository {
     Key key = new Key(address);
     AccountCapsule account = new AccountCapsule(ByteString.copyFrom(address), AccountType.Normal,
             getDynamicPropertiesStore().getLatestBlockHeaderTimestamp());
-    accountCache.put(key, new Value(account.getData(), Type.VALUE_TYPE_CREATE));
+    accountCache.put(key, Value.create(account, Type.VALUE_TYPE_CREATE));
     return account;
   }
 
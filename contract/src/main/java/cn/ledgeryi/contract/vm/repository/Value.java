@@ -2,6 +2,9 @@ package cn.ledgeryi.contract.vm.repository;
 
 import cn.ledgeryi.chainbase.core.capsule.*;
 import cn.ledgeryi.common.core.exception.BadItemException;
+import cn.ledgeryi.protos.Protocol.Account;
+import cn.ledgeryi.protos.contract.SmartContractOuterClass.SmartContract;
+import com.google.protobuf.Message;
 import org.apache.commons.lang3.ArrayUtils;
 import org.spongycastle.util.encoders.Hex;
 
@@ -11,6 +14,8 @@ public class Value {
 
   private Type type;
   private byte[] any = null;
+  // decoded form of any, protobuf messages are immutable so every copy can share it
+  private Message instance;
 
   public Value(byte[] any, Type type) {
     if (any != null && any.length > 0) {
@@ -28,10 +33,18 @@ public class Value {
     }
   }
 
+  private Value(Message instance, int type) {
+    this.instance = instance;
+    this.type = new Type(type);
+  }
+
   private Value(Value value) {
-    if (value.getAny() != null && value.getAny().length > 0) {
+    this.instance = value.instance;
+    if (value.any != null && value.any.length > 0) {
       this.any = new byte[value.any.length];
-      System.arraycopy(value.getAny(), 0, this.any, 0, value.getAny().length);
+      System.arraycopy(value.any, 0, this.any, 0, value.any.length);
+    }
+    if (value.type != null) {
       this.type = value.getType().clone();
     }
   }
@@ -44,11 +57,28 @@ public class Value {
     return new Value(any, Type.VALUE_TYPE_NORMAL);
   }
 
+  /**
+   * keeps the decoded account, it is only serialized when written to the store.
+   */
+  public static Value create(AccountCapsule account, int type) {
+    return new Value(account.getInstance(), type);
+  }
+
+  /**
+   * keeps the decoded contract, it is only serialized when written to the store.
+   */
+  public static Value create(ContractCapsule contract, int type) {
+    return new Value(contract.getInstance(), type);
+  }
+
   public Value clone() {
     return new Value(this);
   }
 
   public byte[] getAny() {
+    if (any == null && instance != null) {
+      any = instance.toByteArray();
+    }
     return any;
   }
 
@@ -69,10 +99,15 @@ public class Value {
   }
 
   public AccountCapsule getAccount() {
+    if (instance instanceof Account) {
+      return new AccountCapsule((Account) instance);
+    }
     if (ArrayUtils.isEmpty(any)) {
       return null;
     }
-    return new AccountCapsule(any);
+    AccountCapsule account = new AccountCapsule(any);
+    instance = account.getInstance();
+    return account;
   }
 
   public BytesCapsule getBytes() {
@@ -127,10 +162,15 @@ public class Value {
   }
 
   public ContractCapsule getContract() {
+    if (instance instanceof SmartContract) {
+      return new ContractCapsule((SmartContract) instance);
+    }
     if (ArrayUtils.isEmpty(any)) {
       return null;
     }
-    return new ContractCapsule(any);
+    ContractCapsule contract = new ContractCapsule(any);
+    instance = contract.getInstance();
+    return contract;
   }
 
   public BytesCapsule getDynamicProperties() {
@@ -149,7 +189,7 @@ public class Value {
       return false;
     }
     Value V = (Value) obj;
-    if (Arrays.equals(this.any, V.getAny())) {
+    if (Arrays.equals(this.getAny(), V.getAny())) {
       return true;
     }
     return false;
@@ -157,7 +197,7 @@ public class Value {
 
   @Override
   public int hashCode() {
-    return new Integer(type.hashCode() + Arrays.hashCode(any)).hashCode();
+    return new Integer(type.hashCode() + Arrays.hashCode(getAny())).hashCode();
   }
 
 }
@@ -0,0 +1,114 @@
+package cn.ledgeryi.contract.vm;
+
+import cn.ledgeryi.common.runtime.vm.DataWord;
+import cn.ledgeryi.contract.vm.program.Program;
+import cn.ledgeryi.contract.vm.program.Stack;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Cost per instruction of the {@link LoopContract}. play runs it on the VM; stack and vectorStack
+ * replay its stack operations on the operand stack and on the java.util.Stack it used to extend.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ArithmeticLoopBenchmark {
+
+  private final byte[] code = LoopContract.code(LoopContract.LOOPS);
+  private final VM vm = new VM();
+
+  @Benchmark
+  @OperationsPerInvocation(LoopContract.INSTRUCTIONS)
+  public Program play() {
+    Program program = LoopContract.program(code);
+    vm.play(program);
+    return program;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LoopContract.INSTRUCTIONS)
+  public DataWord stack() {
+    Stack stack = new Stack();
+    stack.push(new DataWord(0));
+    stack.push(new DataWord(LoopContract.LOOPS));
+    DataWord counter;
+    do {
+      swap(stack);
+      stack.push(stack.get(stack.size() - 2).clone());
+      DataWord word = stack.pop();
+      word.add(stack.pop());
+      stack.push(word);
+      swap(stack);
+      stack.push(new DataWord(1));
+      swap(stack);
+      word = stack.pop();
+      word.sub(stack.pop());
+      stack.push(word);
+      stack.push(stack.peek().clone());
+      stack.push(new DataWord(5));
+      stack.pop();
+      counter = stack.pop();
+    } while (!counter.isZero());
+    return stack.pop();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LoopContract.INSTRUCTIONS)
+  public DataWord vectorStack() {
+    java.util.Stack<DataWord> stack = new java.util.Stack<>();
+    stack.push(new DataWord(0));
+    stack.push(new DataWord(LoopContract.LOOPS));
+    DataWord counter;
+    do {
+      swap(stack);
+      stack.push(stack.get(stack.size() - 2).clone());
+      DataWord word = stack.pop();
+      word.add(stack.pop());
+      stack.push(word);
+      swap(stack);
+      stack.push(new DataWord(1));
+      swap(stack);
+      word = stack.pop();
+      word.sub(stack.pop());
+      stack.push(word);
+      stack.push(stack.peek().clone());
+      stack.push(new DataWord(5));
+      stack.pop();
+      counter = stack.pop();
+    } while (!counter.isZero());
+    return stack.pop();
+  }
+
+  private static void swap(Stack stack) {
+    stack.swap(stack.size() - 1, stack.size() - 2);
+  }
+
+  private static void swap(java.util.Stack<DataWord> stack) {
+    int top = stack.size() - 1;
+    DataWord word = stack.get(top);
+    stack.set(top, stack.get(top - 1));
+    stack.set(top - 1, word);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(ArithmeticLoopBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -0,0 +1,39 @@
+package cn.ledgeryi.contract.vm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import cn.ledgeryi.contract.vm.program.Program;
+import cn.ledgeryi.contract.vm.program.Stack;
+import org.junit.Test;
+
+public class ArithmeticLoopTest {
+
+  @Test
+  public void loopSumsTheCounter() {
+    Program program = LoopContract.program(LoopContract.code(LoopContract.LOOPS));
+    new VM().play(program);
+    assertLoopResult(program, LoopContract.LOOPS);
+  }
+
+  @Test
+  public void tracedLoopGivesTheSameResult() {
+    Program program = LoopContract.program(LoopContract.code(300));
+    StringBuilder out = new StringBuilder();
+    program.addListener(out::append);
+    assertTrue(program.isTraced());
+    new VM().play(program);
+    assertLoopResult(program, 300);
+    assertTrue(out.length() > 0);
+  }
+
+  private static void assertLoopResult(Program program, int loops) {
+    assertNull(program.getResult().getException());
+    assertTrue(program.isStopped());
+    Stack stack = program.getStack();
+    assertEquals(2, stack.size());
+    assertEquals(0, stack.get(1).intValue());
+    assertEquals(loops * (loops + 1) / 2, stack.get(0).longValue());
+  }
+}
@@ -0,0 +1,73 @@
+package cn.ledgeryi.contract.vm;
+
+import cn.ledgeryi.contract.vm.program.Program;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Instructions per second of the {@link LoopContract} on the plain and on the traced interpreter
+ * loop. untracedBefore steps the plain loop with what every instruction paid before the split
+ * while tracing was off: the debug message built and the full trace check.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InterpreterTraceBenchmark {
+
+  private final byte[] code = LoopContract.code(LoopContract.LOOPS);
+  private final VM vm = new VM();
+
+  @Benchmark
+  @OperationsPerInvocation(LoopContract.INSTRUCTIONS)
+  public Program plain() {
+    Program program = LoopContract.program(code);
+    vm.play(program);
+    return program;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LoopContract.INSTRUCTIONS)
+  public Program traced(Blackhole blackhole) {
+    Program program = LoopContract.program(code);
+    program.addListener(blackhole::consume);
+    vm.play(program);
+    return program;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LoopContract.INSTRUCTIONS)
+  public Program untracedBefore(Blackhole blackhole) {
+    Program program = LoopContract.program(code);
+    while (!program.isStopped()) {
+      blackhole.consume("current exec code: " + program.getCurrentOpCode().toString());
+      try {
+        vm.step(program);
+      } finally {
+        program.fullTrace();
+      }
+    }
+    return program;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(InterpreterTraceBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
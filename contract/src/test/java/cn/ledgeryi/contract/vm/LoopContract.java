@@ -0,0 +1,54 @@
+package cn.ledgeryi.contract.vm;
+
+import cn.ledgeryi.chainbase.common.runtime.InternalTransaction;
+import cn.ledgeryi.contract.vm.config.VmConfig;
+import cn.ledgeryi.contract.vm.program.Program;
+import cn.ledgeryi.contract.vm.program.invoke.ProgramInvokeImpl;
+import java.util.Arrays;
+
+/**
+ * A tight arithmetic loop, sums the counter down to zero:
+ *
+ * <pre>
+ *  0: PUSH1 0          acc
+ *  2: PUSH2 n          counter
+ *  5: JUMPDEST
+ *  6: SWAP1, DUP2, ADD, SWAP1           acc += counter
+ * 10: PUSH1 1, SWAP1, SUB               counter -= 1
+ * 14: DUP1, PUSH1 5, JUMPI              loop while counter != 0
+ * 18: STOP
+ * </pre>
+ */
+final class LoopContract {
+
+  static final int LOOPS = 1000;
+  // two pushes, eleven instructions per loop and the stop
+  static final int INSTRUCTIONS = 2 + 11 * LOOPS + 1;
+
+  private LoopContract() {
+  }
+
+  static byte[] code(int loops) {
+    return new byte[] {
+        0x60, 0x00,
+        0x61, (byte) (loops >> 8), (byte) loops,
+        0x5b,
+        (byte) 0x90, (byte) 0x81, 0x01, (byte) 0x90,
+        0x60, 0x01, (byte) 0x90, 0x03,
+        (byte) 0x80, 0x60, 0x05, 0x57,
+        0x00
+    };
+  }
+
+  static Program program(byte[] code) {
+    byte[] address = new byte[21];
+    ProgramInvokeImpl invoke = new ProgramInvokeImpl(address, address, address, 0,
+        new byte[0], new byte[32], address, 0, null, 0, 0, 0);
+    InternalTransaction tx = new InternalTransaction(new byte[32], 0, 0, address, address,
+        0, code, "call", 0);
+    Program program = new Program(code, invoke, tx, VmConfig.getInstance());
+    // the code is shorter than a hash, padded it is a key unique to the code for the precompile cache
+    program.setCodeHash(Arrays.copyOf(code, 32));
+    return program;
+  }
+}
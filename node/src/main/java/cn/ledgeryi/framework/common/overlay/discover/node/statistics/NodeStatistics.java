@@ -16,6 +16,8 @@ public class NodeStatistics {
   public final MessageCount tcpFlow = new MessageCount();
   public final SimpleStatter discoverMessageLatency;
   public final SimpleStatter pingMessageLatency;
+  // from queueing a message to the end of its write, in milliseconds
+  public final SimpleStatter sendMessageLatency;
   public final AtomicLong lastPongReplyTime = new AtomicLong(0L); // in milliseconds
   private final long MIN_DATA_LENGTH = Args.getInstance().getReceiveTcpMinDataLength();
   private boolean isPredefined = false;
@@ -33,6 +35,7 @@ public class NodeStatistics {
   public NodeStatistics() {
     discoverMessageLatency = new SimpleStatter();
     pingMessageLatency = new SimpleStatter();
+    sendMessageLatency = new SimpleStatter();
     reputation = new Reputation(this);
   }
 
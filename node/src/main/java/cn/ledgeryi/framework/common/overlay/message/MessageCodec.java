@@ -24,13 +24,12 @@ public class MessageCodec extends ByteToMessageDecoder {
   protected void decode(ChannelHandlerContext ctx, ByteBuf buffer, List<Object> out)
       throws Exception {
     int length = buffer.readableBytes();
-    byte[] encoded = new byte[length];
-    buffer.readBytes(encoded);
     try {
-      Message msg = createMessage(encoded);
+      Message msg = createMessage(buffer);
       channel.getNodeStatistics().tcpFlow.add(length);
       out.add(msg);
     } catch (Exception e) {
+      buffer.skipBytes(buffer.readableBytes());
       channel.processException(e);
     }
   }
@@ -39,15 +38,24 @@ public class MessageCodec extends ByteToMessageDecoder {
     this.channel = channel;
   }
 
-  private Message createMessage(byte[] encoded) throws Exception {
-    byte type = encoded[0];
+  /**
+   * the payload is copied once, straight from the frame into the array the message keeps for
+   * its id and for relaying.
+   */
+  private Message createMessage(ByteBuf buffer) throws Exception {
+    if (!buffer.isReadable()) {
+      throw new P2pException(P2pException.TypeEnum.MESSAGE_WITH_WRONG_LENGTH, "empty frame");
+    }
+    byte type = buffer.readByte();
+    byte[] rawData = new byte[buffer.readableBytes()];
+    buffer.readBytes(rawData);
     if (MessageTypes.inP2pRange(type)) {
-      return p2pMessageFactory.create(encoded);
+      return p2pMessageFactory.create(type, rawData);
     }
     if (MessageTypes.inLedgerYiRange(type)) {
-      return ledgerYiMessageFactory.create(encoded);
+      return ledgerYiMessageFactory.create(type, rawData);
     }
-    throw new P2pException(P2pException.TypeEnum.NO_SUCH_MESSAGE, "type=" + encoded[0]);
+    throw new P2pException(P2pException.TypeEnum.NO_SUCH_MESSAGE, "type=" + type);
   }
 
 }
\ No newline at end of file
@@ -6,4 +6,6 @@ public abstract class MessageFactory {
 
   protected abstract Message create(byte[] data) throws Exception;
 
+  protected abstract Message create(byte type, byte[] rawData) throws Exception;
+
 }
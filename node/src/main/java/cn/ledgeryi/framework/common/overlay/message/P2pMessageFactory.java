@@ -8,25 +8,32 @@ public class P2pMessageFactory extends MessageFactory {
 
   @Override
   public P2pMessage create(byte[] data) throws Exception {
-    if (data.length <= 1) {
+    if (data.length == 0) {
       throw new P2pException(P2pException.TypeEnum.MESSAGE_WITH_WRONG_LENGTH,
-          "messageType=" + (data.length == 1 ? data[0] : "unknow"));
+          "messageType=unknow");
+    }
+    return create(data[0], ArrayUtils.subarray(data, 1, data.length));
+  }
+
+  @Override
+  public P2pMessage create(byte type, byte[] rawData) throws Exception {
+    if (rawData.length == 0) {
+      throw new P2pException(P2pException.TypeEnum.MESSAGE_WITH_WRONG_LENGTH,
+          "messageType=" + type);
     }
     try {
-      byte type = data[0];
-      byte[] rawData = ArrayUtils.subarray(data, 1, data.length);
-      return create(type, rawData);
+      return createMessage(type, rawData);
     } catch (Exception e) {
       if (e instanceof P2pException) {
         throw e;
       } else {
         throw new P2pException(P2pException.TypeEnum.PARSE_MESSAGE_FAILED,
-            "type=" + data[0] + ", len=" + data.length);
+            "type=" + type + ", len=" + (rawData.length + 1));
       }
     }
   }
 
-  private P2pMessage create(byte type, byte[] rawData) throws Exception {
+  private P2pMessage createMessage(byte type, byte[] rawData) throws Exception {
     MessageTypes messageType = MessageTypes.fromByte(type);
     if (messageType == null) {
       throw new P2pException(P2pException.TypeEnum.NO_SUCH_MESSAGE,
@@ -5,7 +5,6 @@ import cn.ledgeryi.common.core.exception.P2pException;
 import cn.ledgeryi.protos.Protocol;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPipeline;
-import io.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
 import io.netty.handler.timeout.ReadTimeoutException;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import java.io.IOException;
@@ -66,7 +65,7 @@ public class Channel {
     startTime = System.currentTimeMillis();
     pipeline.addLast("readTimeoutHandler", new ReadTimeoutHandler(60, TimeUnit.SECONDS));
     pipeline.addLast(stats.tcp);
-    pipeline.addLast("protoPender", new ProtobufVarint32LengthFieldPrepender());
+    pipeline.addLast("protoPender", new LedgerYiProtobufVarint32LengthFieldPrepender());
     pipeline.addLast("lengthDecode", new LedgerYiProtobufVarint32FrameDecoder(this));
     //handshake first
     pipeline.addLast("handshakeHandler", handshakeHandler);
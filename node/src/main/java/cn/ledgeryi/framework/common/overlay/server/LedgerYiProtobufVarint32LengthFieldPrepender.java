@@ -0,0 +1,47 @@
+package cn.ledgeryi.framework.common.overlay.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import java.util.List;
+
+/**
+ * prepends the varint32 length of the frame, the payload is added to a composite buffer
+ * instead of being copied behind the header.
+ */
+public class LedgerYiProtobufVarint32LengthFieldPrepender extends MessageToMessageEncoder<ByteBuf> {
+
+  private static final int MAX_VARINT32_SIZE = 5;
+
+  @Override
+  protected void encode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) {
+    int length = msg.readableBytes();
+    ByteBuf header = ctx.alloc().buffer(computeRawVarint32Size(length), MAX_VARINT32_SIZE);
+    writeRawVarint32(header, length);
+    out.add(ctx.alloc().compositeBuffer(2).addComponents(true, header, msg.retain()));
+  }
+
+  private static void writeRawVarint32(ByteBuf out, int value) {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  private static int computeRawVarint32Size(int value) {
+    if ((value & (0xffffffff << 7)) == 0) {
+      return 1;
+    }
+    if ((value & (0xffffffff << 14)) == 0) {
+      return 2;
+    }
+    if ((value & (0xffffffff << 21)) == 0) {
+      return 3;
+    }
+    if ((value & (0xffffffff << 28)) == 0) {
+      return 4;
+    }
+    return 5;
+  }
+}
@@ -6,6 +6,7 @@ import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import java.util.Queue;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Scope;
@@ -23,14 +24,19 @@ public class MessageQueue {
   private final static ScheduledExecutorService sendTimer =
           Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "sendTimer"));
 
+  // messages written before one flush, the drain yields the event loop after that
+  private static final int MAX_WRITES_PER_FLUSH = 64;
+
   private volatile boolean sendMsgFlag = false;
   private volatile long sendTime;
   private volatile long sendPing;
-  private Thread sendMsgThread;
   private Channel channel;
   private ChannelHandlerContext ctx = null;
   private final Queue<MessageRoundtrip> requestQueue = new ConcurrentLinkedQueue<>();
-  private final BlockingQueue<Message> msgQueue = new LinkedBlockingQueue<>();
+  // blocks, block inventories, sync and keep alive messages go out before transaction traffic
+  private final Queue<QueuedMessage> highQueue = new ConcurrentLinkedQueue<>();
+  private final Queue<QueuedMessage> lowQueue = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean drainScheduled = new AtomicBoolean();
   private ScheduledFuture<?> sendTask;
 
 
@@ -43,32 +49,9 @@ public class MessageQueue {
           send();
         }
       } catch (Exception e) {
-        log.error("[MessageQueue] [sendMsgThread] Unhandled exception", e);
+        log.error("[MessageQueue] [sendTask] Unhandled exception", e);
       }
     }, 10, 10, TimeUnit.MILLISECONDS);
-
-    sendMsgThread = new Thread(() -> {
-      while (sendMsgFlag) {
-        try {
-          if (msgQueue.isEmpty()) {
-            Thread.sleep(10);
-            continue;
-          }
-          // the type of msg is TX , BLOCK , PING or PONG
-          Message msg = msgQueue.take();
-          ctx.writeAndFlush(msg.getSendData()).addListener((ChannelFutureListener) future -> {
-            if (!future.isSuccess() && !channel.isDisconnect()) {
-              log.error("Fail send to {}, {}", ctx.channel().remoteAddress(), msg);
-            }
-          });
-          log.debug("[MessageQueue] [sendMsgThread] Send to {}, {} ", ctx.channel().remoteAddress(), msg);
-        } catch (Exception e) {
-          log.error("[MessageQueue] [sendMsgThread] Fail send to {}, error info: {}", ctx.channel().remoteAddress(), e.getMessage());
-        }
-      }
-    });
-    sendMsgThread.setName("sendMsgThread-TX-BLOCK-PING-PONG" + ctx.channel().remoteAddress());
-    sendMsgThread.start();
   }
 
   public void setChannel(Channel channel) {
@@ -84,17 +67,83 @@ public class MessageQueue {
       sendPing = now;
     }
 
-    log.debug("[MessageQueue] [sendMessage] Send to msgQueue {}, {} ", ctx.channel().remoteAddress(), msg);
+    log.debug("[MessageQueue] [sendMessage] Queue to {}, {} ", ctx.channel().remoteAddress(), msg);
     channel.getNodeStatistics().messageStatistics.addTcpOutMessage(msg);
     sendTime = System.currentTimeMillis();
     if (msg.getAnswerMessage() != null) {
       requestQueue.add(new MessageRoundtrip(msg));
     } else {
-      msgQueue.offer(msg);
+      QueuedMessage queued = new QueuedMessage(msg, System.currentTimeMillis());
+      (isLowPriority(msg) ? lowQueue : highQueue).offer(queued);
+      scheduleDrain();
     }
     return true;
   }
 
+  public int getHighQueueSize() {
+    return highQueue.size();
+  }
+
+  public int getLowQueueSize() {
+    return lowQueue.size();
+  }
+
+  private static boolean isLowPriority(Message msg) {
+    return msg instanceof TransactionsMessage
+        || (msg instanceof InventoryMessage && ((InventoryMessage) msg).getInventoryType()
+        .equals(Protocol.Inventory.InventoryType.TX));
+  }
+
+  private void scheduleDrain() {
+    if (sendMsgFlag && drainScheduled.compareAndSet(false, true)) {
+      ctx.executor().execute(this::drain);
+    }
+  }
+
+  /**
+   * runs on the event loop of the channel, writes the queued messages high lane first and
+   * flushes once per batch.
+   */
+  private void drain() {
+    int writes = 0;
+    QueuedMessage queued;
+    while (sendMsgFlag && writes < MAX_WRITES_PER_FLUSH
+        && ((queued = highQueue.poll()) != null || (queued = lowQueue.poll()) != null)) {
+      write(queued);
+      writes++;
+    }
+    if (writes > 0) {
+      ctx.flush();
+    }
+
+    if (sendMsgFlag && (!highQueue.isEmpty() || !lowQueue.isEmpty())) {
+      // more to send, let the other channels of this loop run first
+      ctx.executor().execute(this::drain);
+      return;
+    }
+    drainScheduled.set(false);
+    if (!highQueue.isEmpty() || !lowQueue.isEmpty()) {
+      scheduleDrain();
+    }
+  }
+
+  private void write(QueuedMessage queued) {
+    Message msg = queued.msg;
+    try {
+      ctx.write(msg.getSendData()).addListener((ChannelFutureListener) future -> {
+        if (future.isSuccess()) {
+          channel.getNodeStatistics().sendMessageLatency
+              .add(System.currentTimeMillis() - queued.time);
+        } else if (!channel.isDisconnect()) {
+          log.error("Fail send to {}, {}", ctx.channel().remoteAddress(), msg);
+        }
+      });
+      log.debug("[MessageQueue] [drain] Send to {}, {} ", ctx.channel().remoteAddress(), msg);
+    } catch (Exception e) {
+      log.error("[MessageQueue] [drain] Fail send to {}, error info: {}", ctx.channel().remoteAddress(), e.getMessage());
+    }
+  }
+
   public void receivedMessage(Message msg) {
     log.debug("[MessageQueue] [receivedMessage] Receive from {}, {}, ID:{}", ctx.channel().remoteAddress(), msg, msg.getMessageId().toString());
     channel.getNodeStatistics().messageStatistics.addTcpInMessage(msg);
@@ -113,14 +162,8 @@ public class MessageQueue {
       sendTask.cancel(false);
       sendTask = null;
     }
-    if (sendMsgThread != null) {
-      try {
-        sendMsgThread.join(20);
-        sendMsgThread = null;
-      } catch (Exception e) {
-        log.warn("Join send thread failed, peer {}", ctx.channel().remoteAddress());
-      }
-    }
+    highQueue.clear();
+    lowQueue.clear();
   }
 
   private boolean needToLog(Message msg) {
@@ -165,4 +208,14 @@ public class MessageQueue {
     rt.saveTime();
   }
 
+  private static class QueuedMessage {
+
+    private final Message msg;
+    private final long time;
+
+    private QueuedMessage(Message msg, long time) {
+      this.msg = msg;
+      this.time = time;
+    }
+  }
 }
@@ -18,6 +18,7 @@ import cn.ledgeryi.framework.common.overlay.client.PeerClient;
 import cn.ledgeryi.framework.common.overlay.discover.node.NodeHandler;
 import cn.ledgeryi.framework.common.overlay.discover.node.NodeManager;
 import cn.ledgeryi.framework.core.config.args.Args;
+import cn.ledgeryi.framework.core.net.messagehandler.TransactionsMsgHandler;
 import cn.ledgeryi.framework.core.net.peer.PeerConnection;
 
 @Slf4j(topic = "net")
@@ -39,6 +40,7 @@ public class SyncPool {
 
   private PeerClient peerClient;
   private ChannelManager channelManager;
+  private TransactionsMsgHandler transactionsMsgHandler;
   private final Args args = Args.getInstance();
   private final int maxActiveNodes = args.getNodeMaxActiveNodes();
   private final int maxActivePeersWithSameIp = args.getNodeMaxActiveNodesWithSameIp();
@@ -48,6 +50,7 @@ public class SyncPool {
   public void init() {
     channelManager = ctx.getBean(ChannelManager.class);
     peerClient = ctx.getBean(PeerClient.class);
+    transactionsMsgHandler = ctx.getBean(TransactionsMsgHandler.class);
 
     poolLoopExecutor.scheduleWithFixedDelay(() -> {
       try {
@@ -102,6 +105,7 @@ public class SyncPool {
     String str = String.format("\n\nPeer stats: all %d, active %d, passive %d\n\n",
         channelManager.getActivePeers().size(), activePeersCount.get(), passivePeersCount.get());
     StringBuilder sb = new StringBuilder(str);
+    sb.append(transactionsMsgHandler.getStatus()).append("\n\n");
     for (PeerConnection peer : new ArrayList<>(activePeers)) {
       sb.append(peer.log()).append('\n');
     }
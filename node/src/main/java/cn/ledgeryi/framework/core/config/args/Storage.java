@@ -42,6 +42,7 @@ public class Storage {
   private static final String WRITE_BUFFER_SIZE_CONFIG_KEY = "writeBufferSize";
   private static final String CACHE_SIZE_CONFIG_KEY = "cacheSize";
   private static final String MAX_OPEN_FILES_CONFIG_KEY = "maxOpenFiles";
+  private static final String READ_CACHE_SIZE_CONFIG_KEY = "readCacheSize";
   private static final String EVENT_SUBSCRIB_CONTRACT_PARSE = "event.subscribe.contractParse";
 
   /**
@@ -273,6 +274,22 @@ public class Storage {
     }
 
     property.setDbOptions(dbOptions);
+
+    if (conf.containsKey(READ_CACHE_SIZE_CONFIG_KEY)) {
+      try {
+        long readCacheSize = Long.parseLong(
+            conf.get(READ_CACHE_SIZE_CONFIG_KEY).unwrapped().toString()
+        );
+        if (readCacheSize < 0) {
+          throw new IllegalArgumentException(
+              "[storage.properties] readCacheSize must not be negative.");
+        }
+        property.setReadCacheSize(readCacheSize);
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException(
+            "[storage.properties] readCacheSize must be Long type.");
+      }
+    }
     return property;
   }
 
@@ -0,0 +1,64 @@
+package cn.ledgeryi.framework.core.db;
+
+import cn.ledgeryi.chainbase.core.capsule.BlockCapsule;
+import cn.ledgeryi.chainbase.core.capsule.TransactionCapsule;
+import cn.ledgeryi.common.utils.Sha256Hash;
+import cn.ledgeryi.protos.Protocol;
+import com.google.protobuf.CodedOutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Transactions packed into a block being produced. The packed ids and the serialized size of the
+ * block are kept as transactions are added, and the block is assembled once at the end, so
+ * packing stays linear in the number of pending transactions.
+ */
+class BlockPacker {
+
+  // field tag and length prefix of a transaction in the block, at most
+  private static final int TRANSACTION_OVERHEAD = 3;
+
+  private final BlockCapsule block;
+  private final List<TransactionCapsule> transactions = new ArrayList<>();
+  private final Set<Sha256Hash> packedTxIds = new HashSet<>();
+  private long size;
+
+  BlockPacker(BlockCapsule block) {
+    this.block = block;
+    this.size = block.getInstance().getSerializedSize();
+  }
+
+  boolean isPacked(TransactionCapsule tx) {
+    return packedTxIds.contains(tx.getTransactionId());
+  }
+
+  /**
+   * serialized size of the block once tx is added.
+   */
+  long sizeWith(TransactionCapsule tx) {
+    return size + tx.getSerializedSize() + TRANSACTION_OVERHEAD;
+  }
+
+  void add(TransactionCapsule tx) {
+    transactions.add(tx);
+    packedTxIds.add(tx.getTransactionId());
+    size += CodedOutputStream.computeMessageSize(
+        Protocol.Block.TRANSACTIONS_FIELD_NUMBER, tx.getInstance());
+  }
+
+  long getSize() {
+    return size;
+  }
+
+  int getCount() {
+    return transactions.size();
+  }
+
+  BlockCapsule build() {
+    block.addTransactions(transactions);
+    transactions.clear();
+    return block;
+  }
+}
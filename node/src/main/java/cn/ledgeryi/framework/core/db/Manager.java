@@ -18,6 +18,7 @@ import cn.ledgeryi.common.utils.Sha256Hash;
 import cn.ledgeryi.consenus.Consensus;
 import cn.ledgeryi.consenus.base.Param;
 import cn.ledgeryi.contract.utils.TransactionRegister;
+import cn.ledgeryi.contract.vm.ContractMeter;
 import cn.ledgeryi.framework.common.overlay.discover.node.Node;
 import cn.ledgeryi.framework.common.runtime.RuntimeImpl;
 import cn.ledgeryi.framework.common.utils.BlockUtil;
@@ -29,7 +30,6 @@ import cn.ledgeryi.framework.core.config.args.Args;
 import cn.ledgeryi.framework.core.exception.*;
 import cn.ledgeryi.framework.core.net.LedgerYiNetService;
 import cn.ledgeryi.protos.Protocol;
-import cn.ledgeryi.protos.Protocol.Transaction.Contract;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
@@ -58,6 +58,8 @@ public class Manager {
   private AccountStore accountStore;
   @Autowired
   private TransactionStore transactionStore;
+  @Autowired(required = false)
+  private TransactionCache transactionCache;
   @Autowired
   private BlockStore blockStore;
   @Autowired
@@ -114,10 +116,14 @@ public class Manager {
   private final ForkController forkController = ForkController.instance();
   private ExecutorService validateSignService;
   private boolean isRunRepushThread = true;
-  private final Set<String> ownerAddressSet = new HashSet<>();
-  private List<TransactionCapsule> pendingTransactions;
+  // api clients are already turned away at MAX_TRANSACTION_PENDING, the bound is for peer traffic
+  private static final int PENDING_POOL_CAPACITY = MAX_TRANSACTION_PENDING * 4;
+  private static final long STATUS_LOG_INTERVAL = 60_000;
+  private static final int STATUS_LOG_TOP = 10;
+  private long lastStatusLogTime = 0;
+  private PendingTransactionPool pendingTransactions;
   private final BlockingQueue<TransactionCapsule> pushTransactionQueue = new LinkedBlockingQueue<>();
-  private BlockingQueue<TransactionCapsule> repushTransactions; // the capacity is equal to Integer.MAX_VALUE default
+  private BlockingQueue<TransactionCapsule> repushTransactions;
 
   /**
    * Cycle thread to repush Transactions
@@ -157,7 +163,7 @@ public class Manager {
     return this.masterScheduleStore;
   }
 
-  public List<TransactionCapsule> getPendingTransactions() {
+  public PendingTransactionPool getPendingTransactions() {
     return this.pendingTransactions;
   }
 
@@ -217,8 +223,8 @@ public class Manager {
     Message.setDynamicPropertiesStore(this.getDynamicPropertiesStore());
     revokingStore.disable();
     revokingStore.check();
-    this.pendingTransactions = Collections.synchronizedList(Lists.newArrayList());
-    this.repushTransactions = new LinkedBlockingQueue<>();
+    this.pendingTransactions = new PendingTransactionPool(PENDING_POOL_CAPACITY);
+    this.repushTransactions = new LinkedBlockingQueue<>(MAX_TRANSACTION_PENDING);
 
     this.initGenesis();
     try {
@@ -234,6 +240,10 @@ public class Manager {
       System.exit(1);
     }
     forkController.init(this);
+    if (transactionCache != null) {
+      transactionCache.warmUp(blockStore, getHeadBlockNum());
+    }
+    transactionStore.initIdFilter();
 
     revokingStore.enable();
     validateSignService = Executors.newFixedThreadPool(Args.getInstance().getValidateSignThreadNum());
@@ -351,8 +361,29 @@ public class Manager {
     }
   }
 
+  /**
+   * the revocable recent-id cache answers repeats, the id filter inside the transaction store
+   * answers most new ids, only the rest reach the store.
+   */
   private boolean containsTransaction(TransactionCapsule transactionCapsule) {
-    return transactionStore.has(transactionCapsule.getTransactionId().getBytes());
+    byte[] txId = transactionCapsule.getTransactionId().getBytes();
+    if (transactionCache != null && transactionCache.has(txId)) {
+      return true;
+    }
+    return transactionStore.has(txId);
+  }
+
+  /**
+   * the checks of a pending transaction that only read the chain: size, expiration, signature,
+   * tapos and dup. they run without the manager lock, processTransaction repeats them against
+   * the state the transaction is applied to.
+   */
+  public void preValidateTransaction(TransactionCapsule tx) throws TooBigTransactionException,
+      TransactionExpirationException, ValidateSignatureException, TaposException,
+      DupTransactionException {
+    validateCommon(tx);
+    validateTapos(tx);
+    validateDup(tx);
   }
 
   /**
@@ -372,13 +403,24 @@ public class Manager {
       }
 
       synchronized (this) {
+        if (pendingTransactions.contains(tx.getTransactionId())) {
+          throw new DupTransactionException("pending dup trans");
+        }
+        if (pendingTransactions.isFull()) {
+          // the effects of the evicted transaction are merged into the pending session, so the
+          // session goes as well. The pending transactions are executed again when packed.
+          pendingTransactions.evict();
+          session.reset();
+        }
         if (!session.valid()) {
           session.setValue(revokingStore.buildSession());
         }
 
         try (ISession tmpSession = revokingStore.buildSession()) {
           processTransaction(tx, null);
-          pendingTransactions.add(tx);
+          if (!pendingTransactions.add(tx)) {
+            throw new DupTransactionException("pending dup trans");
+          }
           tmpSession.merge();
         } catch (Exception e){
           log.error("process tx error, error: " ,e );
@@ -414,6 +456,9 @@ public class Manager {
           ReceiptCheckErrException, BadBlockException, VMIllegalException {
 
     processBlock(block);
+    for (TransactionCapsule tx : block.getTransactions()) {
+      pendingTransactions.remove(tx.getTransactionId());
+    }
     this.blockStore.put(block.getBlockId().getBytes(), block);
     this.blockIndexStore.put(block.getBlockId());
     if (block.getTransactions().size() != 0) {
@@ -504,6 +549,33 @@ public class Manager {
     }
   }
 
+  private void verifyBlockHeader(BlockCapsule block)
+      throws ValidateSignatureException, BadBlockException {
+    if (!block.validateSignature(this.dynamicPropertiesStore, this.accountStore)) {
+      log.error("The signature is not validated.");
+      throw new BadBlockException("The signature is not validated");
+    }
+    Sha256Hash merkleRoot = block.calcMerkleRoot();
+    if (!merkleRoot.equals(block.getMerkleRoot())) {
+      log.error("The merkle root doesn't match, Calc result is {} , the headers is {}",
+          merkleRoot, block.getMerkleRoot());
+      throw new BadBlockException("The merkle hash is not validated");
+    }
+  }
+
+  /**
+   * the checks of a received block that do not read chain state, safe to run on any thread
+   * ahead of pushBlock. A block that passes is marked pre-verified.
+   */
+  public void preVerifyBlock(BlockCapsule block)
+      throws ValidateSignatureException, BadBlockException {
+    verifyBlockHeader(block);
+    for (TransactionCapsule tx : block.getTransactions()) {
+      tx.validateSignature();
+    }
+    block.setPreVerified(true);
+  }
+
   /**
    * save a block
    */
@@ -516,13 +588,8 @@ public class Manager {
     PendingManager pm = new PendingManager(this,block);
     try {
       if (!block.generatedByMyself) {
-        if (!block.validateSignature(this.dynamicPropertiesStore, this.accountStore)) {
-          log.error("The signature is not validated.");
-          throw new BadBlockException("The signature is not validated");
-        }
-        if (!block.calcMerkleRoot().equals(block.getMerkleRoot())) {
-          log.error( "The merkle root doesn't match, Calc result is " + block.calcMerkleRoot() + " , the headers is " + block.getMerkleRoot());
-          throw new BadBlockException("The merkle hash is not validated");
+        if (!block.isPreVerified()) {
+          verifyBlockHeader(block);
         }
         consensus.receiveBlock(block);
       }
@@ -555,6 +622,7 @@ public class Manager {
         }
       }
       log.info("save block: {}", newBlock);
+      logStatus();
     } catch (Throwable throwable){
       log.error(throwable.getMessage(), throwable);
       khaosDb.removeBlk(block.getBlockId());
@@ -562,24 +630,27 @@ public class Manager {
     } finally {
       pm.close();
     }
-    //clear ownerAddressSet
-    synchronized (pushTransactionQueue) {
-      if (CollectionUtils.isNotEmpty(ownerAddressSet)) {
-        Set<String> result = new HashSet<>();
-        for (TransactionCapsule transactionCapsule : repushTransactions) {
-          filterOwnerAddress(transactionCapsule, result);
-        }
-        for (TransactionCapsule transactionCapsule : pushTransactionQueue) {
-          filterOwnerAddress(transactionCapsule, result);
-        }
-        ownerAddressSet.clear();
-        ownerAddressSet.addAll(result);
-      }
-    }
     log.debug("pushBlock block number:{}, cost/txs:{}/{}",
         block.getNum(), System.currentTimeMillis() - start, block.getTransactions().size());
   }
 
+  /**
+   * execution and pending transaction metrics, at most once per STATUS_LOG_INTERVAL.
+   */
+  private void logStatus() {
+    long now = System.currentTimeMillis();
+    if (now - lastStatusLogTime < STATUS_LOG_INTERVAL) {
+      return;
+    }
+    lastStatusLogTime = now;
+    log.info("contract meters, top {} by cpu time:{}", STATUS_LOG_TOP,
+        ContractMeter.report(STATUS_LOG_TOP));
+    log.info("pending transactions:{}, owners:{}, oldest age:{}ms, evictions:{}, largest:{}",
+        pendingTransactions.size(), pendingTransactions.getShardCount(),
+        pendingTransactions.getOldestAge(), pendingTransactions.getEvictions(),
+        pendingTransactions.getShardSizes(STATUS_LOG_TOP));
+  }
+
   public void updateDynamicProperties(BlockCapsule block) {
     this.dynamicPropertiesStore.saveLatestBlockHeaderHash(block.getBlockId().getByteString());
     this.dynamicPropertiesStore.saveLatestBlockHeaderNumber(block.getNum());
@@ -718,70 +789,45 @@ public class Manager {
     session.reset();
     session.setValue(revokingStore.buildSession());
 
-    Iterator<TransactionCapsule> iterator = pendingTransactions.iterator();
-    while (iterator.hasNext()) {
+    BlockPacker packer = new BlockPacker(blockCapsule);
+
+    TransactionCapsule tx;
+    while ((tx = pendingTransactions.peek()) != null) {
 
       // check timeout
-      /*if (System.currentTimeMillis() > timeout) {
+      if (System.currentTimeMillis() > timeout) {
         log.warn("Processing transaction time exceeds the producing time.");
         break;
-      }*/
-
-      TransactionCapsule tx = iterator.next();
+      }
 
       // check the block size
-      long blockSize = blockCapsule.getInstance().getSerializedSize() + tx.getSerializedSize() + 3;
+      long blockSize = packer.sizeWith(tx);
       if (blockSize > Parameter.ChainConstant.BLOCK_SIZE) {
         log.info("block size is {}, exceed {}", blockSize, Parameter.ChainConstant.BLOCK_SIZE);
         break;
       }
 
-      Contract contract = tx.getInstance().getRawData().getContract();
-      byte[] owner = TransactionCapsule.getOwner(contract);
-      String ownerAddress = ByteArray.toHexString(owner);
-      if (ownerAddressSet.contains(ownerAddress)) {
-        tx.setVerified(false);
-      }
-
       // process transaction
       try (ISession tmpSession = revokingStore.buildSession()) {
-        boolean dupTrans = false;
-        String txID = Hex.toHexString(tx.getTransactionId().getBytes());
-        List<Protocol.Transaction> transactions = blockCapsule.getInstance().getTransactionsList();
-        for (Protocol.Transaction transaction : transactions) {
-          TransactionCapsule transactionCapsule = new TransactionCapsule(transaction);
-          if (txID.equals(Hex.toHexString(transactionCapsule.getTransactionId().getBytes()))) {
-            dupTrans = true;
-            break;
-          }
-        }
-        if (!dupTrans){
+        if (!packer.isPacked(tx)) {
           processTransaction(tx, blockCapsule);
           tmpSession.merge();
-          blockCapsule.addTransaction(tx);
+          packer.add(tx);
         }
       } catch (Exception e) {
         log.debug("Process tx failed when generating block: {}", e.getMessage());
       } finally {
-        iterator.remove();
+        pendingTransactions.remove(tx.getTransactionId());
       }
     } //end while
     session.reset();
+    packer.build();
     blockCapsule.setMerkleRoot();
     blockCapsule.sign(miner.getPrivateKey());
     log.debug("Generate block success, pendingCount: {}, repushCount: {}", pendingTransactions.size(), repushTransactions.size());
     return blockCapsule;
   }
 
-  private void filterOwnerAddress(TransactionCapsule transactionCapsule, Set<String> result) {
-    Protocol.Transaction.Contract contract = transactionCapsule.getInstance().getRawData().getContract();
-    byte[] owner = TransactionCapsule.getOwner(contract);
-    String ownerAddress = ByteArray.toHexString(owner);
-    if (ownerAddressSet.contains(ownerAddress)) {
-      result.add(ownerAddress);
-    }
-  }
-
   public TransactionStore getTransactionStore() {
     return this.transactionStore;
   }
@@ -805,7 +851,7 @@ public class Manager {
       throw new ValidateScheduleException("validateMasterSchedule error");
     }
     //parallel check sign
-    if (!block.generatedByMyself) {
+    if (!block.generatedByMyself && !block.isPreVerified()) {
       try {
         preValidateTransactionSign(block);
       } catch (InterruptedException e) {
@@ -815,13 +861,15 @@ public class Manager {
     }
 
     TransactionRetCapsule transactionRetCapsule = new TransactionRetCapsule(block);
-    for (TransactionCapsule transactionCapsule : block.getTransactions()) {
+    List<TransactionCapsule> transactions = block.getTransactions();
+    for (int i = 0; i < transactions.size(); i++) {
+      TransactionCapsule transactionCapsule = transactions.get(i);
       transactionCapsule.setBlockNum(block.getNum());
       if (block.generatedByMyself) {
         transactionCapsule.setVerified(true);
       }
       Protocol.TransactionInfo result = processTransaction(transactionCapsule, block);
-      transactionStore.put(transactionCapsule.getTransactionId().getBytes(), transactionCapsule);
+      transactionStore.put(transactionCapsule.getTransactionId().getBytes(), transactionCapsule, i);
       if (Objects.nonNull(result)) {
         transactionRetCapsule.addTransactionInfo(result);
       }
@@ -840,6 +888,10 @@ public class Manager {
   private void updateTransHashCache(BlockCapsule block) {
     for (TransactionCapsule transactionCapsule : block.getTransactions()) {
       this.transactionIdCache.put(transactionCapsule.getTransactionId(), true);
+      if (transactionCache != null) {
+        transactionCache.put(transactionCapsule.getTransactionId().getBytes(),
+            new BytesCapsule(ByteArray.fromLong(block.getNum())));
+      }
     }
   }
 
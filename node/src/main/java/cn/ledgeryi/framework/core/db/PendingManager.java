@@ -24,14 +24,10 @@ public class PendingManager implements AutoCloseable {
   @Override
   public void close() {
 
+    // this runs under the manager lock, which the repush loop needs, so never wait for room
     for (TransactionCapsule tx : tmpTransactions) {
-      try {
-        if (tx.getTxTrace() != null) {
-          dbManager.getRepushTransactions().put(tx);
-        }
-      } catch (InterruptedException e) {
-        log.error(e.getMessage());
-        Thread.currentThread().interrupt();
+      if (tx.getTxTrace() != null && !dbManager.getRepushTransactions().offer(tx)) {
+        log.debug("repush queue is full, drop transaction {}", tx.getTransactionId());
       }
     }
     tmpTransactions.clear();
@@ -0,0 +1,184 @@
+package cn.ledgeryi.framework.core.db;
+
+import cn.ledgeryi.chainbase.core.capsule.TransactionCapsule;
+import cn.ledgeryi.common.utils.ByteArray;
+import cn.ledgeryi.common.utils.Sha256Hash;
+import com.google.protobuf.ByteString;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pending transactions in arrival order, indexed by id and grouped by owner address.
+ *
+ * <p>Adding, removing by id and taking the oldest are O(1), so a block only costs a lookup per
+ * transaction it contains. The pool is bounded and never goes over its capacity: the caller has
+ * to make room with {@link #evict()} first, which drops the oldest transaction of the owner with
+ * the most pending transactions, so a single sender cannot push everybody else out. Owners are
+ * kept bucketed by their number of pending transactions, which makes finding that owner
+ * O(log n). When no owner has more than one, the oldest transaction goes.
+ */
+@Slf4j(topic = "DB")
+public class PendingTransactionPool {
+
+  private final int capacity;
+
+  private final LinkedHashMap<Sha256Hash, Entry> transactions = new LinkedHashMap<>();
+  private final Map<ByteString, LinkedHashMap<Sha256Hash, Entry>> shards = new HashMap<>();
+  // number of pending transactions -> owners with that many, in the order they reached it
+  private final TreeMap<Integer, LinkedHashSet<ByteString>> ownersBySize = new TreeMap<>();
+  private final AtomicLong evictions = new AtomicLong();
+
+  public PendingTransactionPool(int capacity) {
+    this.capacity = capacity;
+  }
+
+  /**
+   * @return false if the transaction is already pending or the pool is full
+   */
+  public synchronized boolean add(TransactionCapsule tx) {
+    Sha256Hash id = tx.getTransactionId();
+    if (transactions.containsKey(id) || transactions.size() >= capacity) {
+      return false;
+    }
+    byte[] address = TransactionCapsule.getOwner(tx.getInstance().getRawData().getContract());
+    ByteString owner = address == null ? ByteString.EMPTY : ByteString.copyFrom(address);
+    Entry entry = new Entry(tx, owner, System.currentTimeMillis());
+    transactions.put(id, entry);
+    Map<Sha256Hash, Entry> shard = shards.computeIfAbsent(owner, k -> new LinkedHashMap<>());
+    shard.put(id, entry);
+    resize(owner, shard.size() - 1, shard.size());
+    return true;
+  }
+
+  /**
+   * the oldest pending transaction, it stays in the pool.
+   */
+  public synchronized TransactionCapsule peek() {
+    Iterator<Entry> iterator = transactions.values().iterator();
+    return iterator.hasNext() ? iterator.next().tx : null;
+  }
+
+  public synchronized boolean remove(Sha256Hash id) {
+    Entry entry = transactions.remove(id);
+    if (entry == null) {
+      return false;
+    }
+    Map<Sha256Hash, Entry> shard = shards.get(entry.owner);
+    shard.remove(id);
+    if (shard.isEmpty()) {
+      shards.remove(entry.owner);
+    }
+    resize(entry.owner, shard.size() + 1, shard.size());
+    return true;
+  }
+
+  public synchronized boolean contains(Sha256Hash id) {
+    return transactions.containsKey(id);
+  }
+
+  public synchronized int size() {
+    return transactions.size();
+  }
+
+  public synchronized boolean isFull() {
+    return transactions.size() >= capacity;
+  }
+
+  public synchronized void clear() {
+    transactions.clear();
+    shards.clear();
+    ownersBySize.clear();
+  }
+
+  /**
+   * moves the owner to the bucket of its new shard size.
+   */
+  private void resize(ByteString owner, int from, int to) {
+    if (from > 0) {
+      LinkedHashSet<ByteString> owners = ownersBySize.get(from);
+      owners.remove(owner);
+      if (owners.isEmpty()) {
+        ownersBySize.remove(from);
+      }
+    }
+    if (to > 0) {
+      ownersBySize.computeIfAbsent(to, k -> new LinkedHashSet<>()).add(owner);
+    }
+  }
+
+  /**
+   * drops the oldest transaction of the owner with the most pending transactions.
+   *
+   * @return the dropped transaction, null if the pool is empty
+   */
+  public synchronized TransactionCapsule evict() {
+    Map.Entry<Integer, LinkedHashSet<ByteString>> largest = ownersBySize.lastEntry();
+    if (largest == null) {
+      return null;
+    }
+    Entry oldest;
+    if (largest.getKey() == 1) {
+      oldest = transactions.values().iterator().next();
+    } else {
+      ByteString owner = largest.getValue().iterator().next();
+      oldest = shards.get(owner).values().iterator().next();
+    }
+    remove(oldest.tx.getTransactionId());
+    long count = evictions.incrementAndGet();
+    log.debug("evict pending transaction {} of {}, evictions:{}",
+        oldest.tx.getTransactionId(), ByteArray.toHexString(oldest.owner.toByteArray()), count);
+    return oldest.tx;
+  }
+
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  public synchronized int getShardCount() {
+    return shards.size();
+  }
+
+  /**
+   * owner address in hex -> number of pending transactions, largest first.
+   */
+  public synchronized Map<String, Integer> getShardSizes(int limit) {
+    Map<String, Integer> result = new LinkedHashMap<>();
+    for (Map.Entry<Integer, LinkedHashSet<ByteString>> bucket
+        : ownersBySize.descendingMap().entrySet()) {
+      for (ByteString owner : bucket.getValue()) {
+        if (result.size() >= limit) {
+          return result;
+        }
+        result.put(ByteArray.toHexString(owner.toByteArray()), bucket.getKey());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * age in milliseconds of the oldest pending transaction, 0 when the pool is empty.
+   */
+  public synchronized long getOldestAge() {
+    Iterator<Entry> iterator = transactions.values().iterator();
+    return iterator.hasNext() ? System.currentTimeMillis() - iterator.next().addedTime : 0;
+  }
+
+  private static class Entry {
+
+    private final TransactionCapsule tx;
+    private final ByteString owner;
+    private final long addedTime;
+
+    private Entry(TransactionCapsule tx, ByteString owner, long addedTime) {
+      this.tx = tx;
+      this.owner = owner;
+      this.addedTime = addedTime;
+    }
+  }
+}
@@ -12,7 +12,7 @@ public class RecentBlockStore extends LedgerYiStoreWithRevoking<BytesCapsule> {
 
   @Autowired
   private RecentBlockStore(@Value("recent-block") String dbName) {
-    super(dbName);
+    super(dbName, BytesCapsule::new);
   }
 
   @Override
@@ -1,8 +1,13 @@
 package cn.ledgeryi.framework.core.db;
 
+import cn.ledgeryi.chainbase.core.capsule.BlockCapsule;
 import cn.ledgeryi.chainbase.core.capsule.BytesCapsule;
+import cn.ledgeryi.chainbase.core.capsule.TransactionCapsule;
+import cn.ledgeryi.chainbase.core.db.BlockStore;
 import cn.ledgeryi.chainbase.core.db.LedgerYiStoreWithRevoking;
 import cn.ledgeryi.chainbase.core.db2.common.TxCacheDB;
+import com.google.common.primitives.Longs;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,8 +15,42 @@ import org.springframework.beans.factory.annotation.Value;
 @Slf4j
 public class TransactionCache extends LedgerYiStoreWithRevoking<BytesCapsule> {
 
+  private static final int WARM_UP_BATCH = 1_000;
+
+  private final TxCacheDB txCacheDB;
+
   @Autowired
   public TransactionCache(@Value("trans-cache") String dbName) {
-    super(new TxCacheDB(dbName));
+    this(new TxCacheDB(dbName));
+  }
+
+  private TransactionCache(TxCacheDB txCacheDB) {
+    super(txCacheDB, BytesCapsule::new);
+    this.txCacheDB = txCacheDB;
+  }
+
+  /**
+   * reload the transaction ids of the latest blocks after a restart, the blocks are already
+   * persisted so they go straight into the root.
+   */
+  public void warmUp(BlockStore blockStore, long headBlockNum) {
+    long start = System.currentTimeMillis();
+    long from = Math.max(1, headBlockNum - TxCacheDB.BLOCK_COUNT + 1);
+    while (from <= headBlockNum) {
+      long limit = Math.min(WARM_UP_BATCH, headBlockNum - from + 1);
+      List<BlockCapsule> blocks = blockStore.getLimitNumber(from, limit);
+      if (blocks.isEmpty()) {
+        break;
+      }
+      for (BlockCapsule block : blocks) {
+        byte[] blockNum = Longs.toByteArray(block.getNum());
+        for (TransactionCapsule tx : block.getTransactions()) {
+          txCacheDB.put(tx.getTransactionId().getBytes(), blockNum);
+        }
+      }
+      from = blocks.get(blocks.size() - 1).getNum() + 1;
+    }
+    log.info("warm up transaction cache, head:{}, txs:{}, cost:{}ms", headBlockNum,
+        txCacheDB.size(), System.currentTimeMillis() - start);
   }
 }
@@ -15,7 +15,7 @@ public class TransactionHistoryStore extends LedgerYiStoreWithRevoking<Transacti
 
   @Autowired
   public TransactionHistoryStore(@Value("transactionHistoryStore") String dbName) {
-    super(dbName);
+    super(dbName, TransactionInfoCapsule::new);
   }
 
   @Override
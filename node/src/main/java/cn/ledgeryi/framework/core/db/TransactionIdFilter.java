@@ -0,0 +1,177 @@
+package cn.ledgeryi.framework.core.db;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bloom filter over the ids written to the transaction store. It is sized from the number of ids
+ * in the store: once it holds as many ids as it was sized for, a filter twice as large is built
+ * from the store in the background and replaces it. It never forgets an id: ids of erased blocks
+ * only cost a false positive, which the store lookup resolves. Past {@link #MAX_INSERTIONS} ids
+ * the filter is dropped and the store answers alone.
+ */
+@Slf4j(topic = "DB")
+final class TransactionIdFilter {
+
+  private static final long MIN_INSERTIONS = 4_000_000;
+  // about 180 MB of filter at the target false positive rate
+  private static final long MAX_INSERTIONS = 100_000_000;
+  private static final double FPP = 0.001;
+
+  private final Supplier<Iterator<Map.Entry<byte[], byte[]>>> storeIds;
+  private final long minInsertions;
+  private final long maxInsertions;
+  private final AtomicBoolean building = new AtomicBoolean();
+  private volatile Segment current;
+  // the filter being built, receives the puts made while the store is scanned
+  private volatile Segment next;
+  private volatile boolean ready;
+  private volatile boolean disabled;
+
+  TransactionIdFilter(Supplier<Iterator<Map.Entry<byte[], byte[]>>> storeIds) {
+    this(storeIds, MIN_INSERTIONS, MAX_INSERTIONS);
+  }
+
+  TransactionIdFilter(Supplier<Iterator<Map.Entry<byte[], byte[]>>> storeIds,
+      long minInsertions, long maxInsertions) {
+    this.storeIds = storeIds;
+    this.minInsertions = minInsertions;
+    this.maxInsertions = maxInsertions;
+    this.current = new Segment(minInsertions);
+  }
+
+  /**
+   * true until the filter has seen every id of the store.
+   */
+  boolean mightContain(byte[] txId) {
+    if (!ready || disabled) {
+      return true;
+    }
+    return current.filter.mightContain(txId);
+  }
+
+  /**
+   * must be called after the id is written to the store, a rebuild that starts later finds it
+   * there.
+   */
+  void put(byte[] txId) {
+    if (disabled) {
+      return;
+    }
+    Segment building = next;
+    if (building != null) {
+      building.put(txId);
+    }
+    Segment segment = current;
+    segment.put(txId);
+    if (ready && segment.isFull()) {
+      rebuild(segment.count.get() * 2);
+    }
+  }
+
+  /**
+   * scans the store in the background, the filter answers once the scan is done.
+   */
+  void init() {
+    rebuild(minInsertions);
+  }
+
+  boolean isReady() {
+    return ready;
+  }
+
+  boolean isDisabled() {
+    return disabled;
+  }
+
+  /**
+   * number of ids the current filter is sized for.
+   */
+  long getCapacity() {
+    return current.capacity;
+  }
+
+  private void rebuild(long insertions) {
+    if (!building.compareAndSet(false, true)) {
+      return;
+    }
+    Thread thread = new Thread(() -> {
+      try {
+        long capacity = insertions;
+        do {
+          if (capacity > maxInsertions) {
+            disable(capacity);
+            return;
+          }
+          build(Math.max(minInsertions, capacity));
+          capacity = current.count.get() * 2;
+        } while (current.isFull());
+      } catch (Exception e) {
+        next = null;
+        log.error("build transaction id filter failed, dup check falls back to the store", e);
+      } finally {
+        building.set(false);
+      }
+    }, "tx-id-filter-build");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private void build(long capacity) throws IOException {
+    long start = System.currentTimeMillis();
+    Segment segment = new Segment(capacity);
+    next = segment;
+    Iterator<Map.Entry<byte[], byte[]>> iterator = storeIds.get();
+    try {
+      while (iterator.hasNext()) {
+        segment.put(iterator.next().getKey());
+      }
+    } finally {
+      if (iterator instanceof Closeable) {
+        ((Closeable) iterator).close();
+      }
+    }
+    current = segment;
+    next = null;
+    ready = true;
+    log.info("transaction id filter built, ids:{}, capacity:{}, cost:{}ms",
+        segment.count.get(), capacity, System.currentTimeMillis() - start);
+  }
+
+  private void disable(long capacity) {
+    disabled = true;
+    current = new Segment(1);
+    next = null;
+    log.warn("transaction id filter dropped, {} ids exceed the limit of {}, "
+        + "dup check falls back to the store", capacity / 2, maxInsertions);
+  }
+
+  private static class Segment {
+
+    private final BloomFilter<byte[]> filter;
+    private final long capacity;
+    private final AtomicLong count = new AtomicLong();
+
+    private Segment(long capacity) {
+      this.capacity = capacity;
+      this.filter = BloomFilter.create(Funnels.byteArrayFunnel(), capacity, FPP);
+    }
+
+    private void put(byte[] txId) {
+      filter.put(txId);
+      count.incrementAndGet();
+    }
+
+    private boolean isFull() {
+      return count.get() >= capacity;
+    }
+  }
+}
@@ -6,6 +6,10 @@ import cn.ledgeryi.common.core.exception.BadItemException;
 import cn.ledgeryi.common.utils.ByteArray;
 import cn.ledgeryi.protos.Protocol;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.WireFormat;
+import java.io.IOException;
 import java.util.Objects;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.BooleanUtils;
@@ -24,7 +28,7 @@ public class TransactionRetStore extends LedgerYiStoreWithRevoking<TransactionRe
 
   @Autowired
   public TransactionRetStore(@Value("transactionRetStore") String dbName) {
-    super(dbName);
+    super(dbName, TransactionRetCapsule::new);
   }
 
   @Override
@@ -44,19 +48,51 @@ public class TransactionRetStore extends LedgerYiStoreWithRevoking<TransactionRe
       return null;
     }
 
+    ByteString id = ByteString.copyFrom(key);
+    int index = transactionStore.getIndex(key);
+    if (index >= 0) {
+      Protocol.TransactionInfo transactionInfo = readTransactionInfo(value, index);
+      if (transactionInfo != null && transactionInfo.getId().equals(id)) {
+        return new TransactionInfoCapsule(transactionInfo);
+      }
+    }
+
     TransactionRetCapsule result = new TransactionRetCapsule(value);
     if (Objects.isNull(result) || Objects.isNull(result.getInstance())) {
       return null;
     }
 
     for (Protocol.TransactionInfo transactionResultInfo : result.getInstance().getTransactionInfoList()) {
-      if (transactionResultInfo.getId().equals(ByteString.copyFrom(key))) {
+      if (transactionResultInfo.getId().equals(id)) {
         return new TransactionInfoCapsule(transactionResultInfo);
       }
     }
     return null;
   }
 
+  /**
+   * decode only the index-th transaction info, the others are skipped on the wire.
+   */
+  static Protocol.TransactionInfo readTransactionInfo(byte[] value, int index)
+      throws BadItemException {
+    try {
+      CodedInputStream input = CodedInputStream.newInstance(value);
+      int count = 0;
+      int tag;
+      while ((tag = input.readTag()) != 0) {
+        if (WireFormat.getTagFieldNumber(tag) == Protocol.TransactionRet.TRANSACTION_INFO_FIELD_NUMBER
+            && count++ == index) {
+          return input.readMessage(Protocol.TransactionInfo.parser(),
+              ExtensionRegistryLite.getEmptyRegistry());
+        }
+        input.skipField(tag);
+      }
+      return null;
+    } catch (IOException e) {
+      throw new BadItemException("TransactionRet proto data parse exception");
+    }
+  }
+
   public TransactionRetCapsule getTransactionInfoByBlockNum(byte[] key) throws BadItemException {
 
     byte[] value = revokingDB.getUnchecked(key);
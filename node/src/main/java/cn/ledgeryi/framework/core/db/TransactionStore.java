@@ -4,13 +4,21 @@ import java.util.List;
 import java.util.Objects;
 
 import cn.ledgeryi.chainbase.core.capsule.BlockCapsule;
+import cn.ledgeryi.chainbase.core.capsule.BlockCapsule.BlockId;
 import cn.ledgeryi.chainbase.core.capsule.TransactionCapsule;
+import cn.ledgeryi.chainbase.core.db.BlockIndexStore;
 import cn.ledgeryi.chainbase.core.db.BlockStore;
 import cn.ledgeryi.chainbase.core.db.KhaosDatabase;
 import cn.ledgeryi.chainbase.core.db.LedgerYiStoreWithRevoking;
 import cn.ledgeryi.common.core.exception.BadItemException;
+import cn.ledgeryi.common.core.exception.ItemNotFoundException;
 import cn.ledgeryi.common.utils.ByteArray;
 import cn.ledgeryi.common.utils.Sha256Hash;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,15 +29,32 @@ import org.springframework.stereotype.Component;
 @Component
 public class TransactionStore extends LedgerYiStoreWithRevoking<TransactionCapsule> {
 
+  // value of an entry: block number, or block number + index of the transaction in the block
+  private static final int BLOCK_NUM_LENGTH = Longs.BYTES;
+  private static final int POSITION_LENGTH = Longs.BYTES + Ints.BYTES;
+  // serialized bytes of the cached blocks, the decoded blocks take about twice as much
+  private static final long RECENT_BLOCKS_WEIGHT = 32L * 1024 * 1024;
+
   @Autowired
   private BlockStore blockStore;
 
+  @Autowired
+  private BlockIndexStore blockIndexStore;
+
   @Autowired
   private KhaosDatabase khaosDatabase;
 
+  private final TransactionIdFilter idFilter = new TransactionIdFilter(() -> revokingDB.iterator());
+
+  // keyed by block id, so a block of an abandoned fork is never returned for its number
+  private final Cache<BlockId, BlockCapsule> recentBlocks = CacheBuilder.newBuilder()
+      .maximumWeight(RECENT_BLOCKS_WEIGHT)
+      .weigher((BlockId id, BlockCapsule block) -> block.getInstance().getSerializedSize())
+      .recordStats().build();
+
   @Autowired
   private TransactionStore(@Value("transactionStore") String dbName) {
-    super(dbName);
+    super(dbName, TransactionCapsule::new);
   }
 
   @Override
@@ -39,15 +64,68 @@ public class TransactionStore extends LedgerYiStoreWithRevoking<TransactionCapsu
     } else {
       revokingDB.put(key, ByteArray.fromLong(item.getBlockNum()));
     }
+    idFilter.put(key);
   }
 
-  private TransactionCapsule getTransactionFromBlockStore(byte[] key, long blockNum) {
-    List<BlockCapsule> blocksList = blockStore.getLimitNumber(blockNum, 1);
-    if (blocksList.size() != 0) {
-      for (TransactionCapsule e : blocksList.get(0).getTransactions()) {
-        if (e.getTransactionId().equals(Sha256Hash.wrap(key))) {
-          return e;
-        }
+  /**
+   * store the block number and the index of the transaction in that block.
+   */
+  public void put(byte[] key, TransactionCapsule item, int index) {
+    if (Objects.isNull(item) || item.getBlockNum() == -1) {
+      put(key, item);
+      return;
+    }
+    revokingDB.put(key, toPosition(item.getBlockNum(), index));
+    idFilter.put(key);
+  }
+
+  /**
+   * a miss in the id filter answers without touching the snapshots or the disk.
+   */
+  @Override
+  public boolean has(byte[] key) {
+    return idFilter.mightContain(key) && super.has(key);
+  }
+
+  /**
+   * feed the ids already on disk into the id filter, must run after the checkpoint has been
+   * replayed. Later puts go to the filter directly, so the scan can run in the background.
+   */
+  public void initIdFilter() {
+    idFilter.init();
+  }
+
+  private BlockCapsule getBlock(long blockNum) {
+    try {
+      BlockId blockId = blockIndexStore.get(blockNum);
+      BlockCapsule block = recentBlocks.getIfPresent(blockId);
+      if (block == null) {
+        block = blockStore.get(blockId.getBytes());
+        recentBlocks.put(blockId, block);
+      }
+      return block;
+    } catch (ItemNotFoundException | BadItemException e) {
+      return null;
+    }
+  }
+
+  private TransactionCapsule getTransactionFromBlockStore(byte[] key, long blockNum, int index) {
+    BlockCapsule block = getBlock(blockNum);
+    return block == null ? null : findTransaction(block, key, index);
+  }
+
+  /**
+   * the transaction at index if it has the id key, otherwise the block is scanned for it.
+   */
+  static TransactionCapsule findTransaction(BlockCapsule block, byte[] key, int index) {
+    List<TransactionCapsule> transactions = block.getTransactions();
+    if (index >= 0 && index < transactions.size()
+        && transactions.get(index).getTransactionId().equals(Sha256Hash.wrap(key))) {
+      return new TransactionCapsule(transactions.get(index).getInstance());
+    }
+    for (TransactionCapsule e : transactions) {
+      if (e.getTransactionId().equals(Sha256Hash.wrap(key))) {
+        return new TransactionCapsule(e.getInstance());
       }
     }
     return null;
@@ -71,8 +149,8 @@ public class TransactionStore extends LedgerYiStoreWithRevoking<TransactionCapsu
       return -1;
     }
 
-    if (value.length == 8) {
-      return ByteArray.toLong(value);
+    if (isPosition(value)) {
+      return Longs.fromByteArray(value);
     }
     TransactionCapsule transactionCapsule = new TransactionCapsule(value);
     return transactionCapsule.getBlockNum();
@@ -85,9 +163,10 @@ public class TransactionStore extends LedgerYiStoreWithRevoking<TransactionCapsu
       return null;
     }
     TransactionCapsule transactionCapsule = null;
-    if (value.length == 8) {
-      long blockHigh = ByteArray.toLong(value);
-      transactionCapsule = getTransactionFromBlockStore(key, blockHigh);
+    if (isPosition(value)) {
+      long blockHigh = Longs.fromByteArray(value);
+      int index = getIndexOf(value);
+      transactionCapsule = getTransactionFromBlockStore(key, blockHigh, index);
       if (transactionCapsule == null) {
         transactionCapsule = getTransactionFromKhaosDatabase(key, blockHigh);
       }
@@ -96,6 +175,35 @@ public class TransactionStore extends LedgerYiStoreWithRevoking<TransactionCapsu
     return transactionCapsule == null ? new TransactionCapsule(value) : transactionCapsule;
   }
 
+  /**
+   * index of the transaction in its block, -1 if only the block number is stored.
+   */
+  public int getIndex(byte[] key) {
+    byte[] value = revokingDB.getUnchecked(key);
+    return value == null ? -1 : getIndexOf(value);
+  }
+
+  static byte[] toPosition(long blockNum, int index) {
+    return Bytes.concat(ByteArray.fromLong(blockNum), Ints.toByteArray(index));
+  }
+
+  /**
+   * whether the value is a block number or a position rather than a whole transaction.
+   */
+  static boolean isPosition(byte[] value) {
+    return value.length == BLOCK_NUM_LENGTH || value.length == POSITION_LENGTH;
+  }
+
+  /**
+   * index of a position value, -1 for a block number.
+   */
+  static int getIndexOf(byte[] value) {
+    if (value.length != POSITION_LENGTH) {
+      return -1;
+    }
+    return Ints.fromBytes(value[8], value[9], value[10], value[11]);
+  }
+
   @Override
   public TransactionCapsule getUnchecked(byte[] key) {
     try {
@@ -209,6 +209,26 @@ public class LedgerYiNetDelegate {
     }
   }
 
+  public void preVerifyBlock(BlockCapsule block) throws P2pException {
+    try {
+      dbManager.preVerifyBlock(block);
+    } catch (ValidateSignatureException | BadBlockException e) {
+      throw new P2pException(TypeEnum.BAD_BLOCK, e);
+    }
+  }
+
+  public void preValidateTransaction(TransactionCapsule tx) throws P2pException {
+    try {
+      dbManager.preValidateTransaction(tx);
+    } catch (ValidateSignatureException
+        | DupTransactionException
+        | TaposException
+        | TooBigTransactionException
+        | TransactionExpirationException e) {
+      throw new P2pException(TypeEnum.TX_EXE_FAILED, e);
+    }
+  }
+
   public void pushTransaction(TransactionCapsule tx) throws P2pException {
     try {
       tx.setTime(System.currentTimeMillis());
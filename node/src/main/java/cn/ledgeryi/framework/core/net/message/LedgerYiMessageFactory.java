@@ -12,19 +12,22 @@ public class LedgerYiMessageFactory extends MessageFactory {
 
   @Override
   public LedgerYiMessage create(byte[] data) throws Exception {
+    return create(data[0], ArrayUtils.subarray(data, 1, data.length));
+  }
+
+  @Override
+  public LedgerYiMessage create(byte type, byte[] rawData) throws Exception {
     try {
-      byte type = data[0];
-      byte[] rawData = ArrayUtils.subarray(data, 1, data.length);
-      return create(type, rawData);
+      return createMessage(type, rawData);
     } catch (final P2pException e) {
       throw e;
     } catch (final Exception e) {
       throw new P2pException(P2pException.TypeEnum.PARSE_MESSAGE_FAILED,
-          "type=" + data[0] + ", len=" + data.length + ", error msg: " + e.getMessage());
+          "type=" + type + ", len=" + (rawData.length + 1) + ", error msg: " + e.getMessage());
     }
   }
 
-  private LedgerYiMessage create(byte type, byte[] packed) throws Exception {
+  private LedgerYiMessage createMessage(byte type, byte[] packed) throws Exception {
     MessageTypes receivedTypes = MessageTypes.fromByte(type);
     if (receivedTypes == null) {
       throw new P2pException(P2pException.TypeEnum.NO_SUCH_MESSAGE,
@@ -24,7 +24,17 @@ public class TransactionMessage extends LedgerYiMessage {
   public TransactionMessage(Protocol.Transaction tx) {
     this.transactionCapsule = new TransactionCapsule(tx);
     this.type = MessageTypes.TX.asByte();
-    this.data = tx.toByteArray();
+  }
+
+  /**
+   * serialized on first use, most transactions of a peer are never relayed.
+   */
+  @Override
+  public byte[] getData() {
+    if (data == null) {
+      data = transactionCapsule.getData();
+    }
+    return data;
   }
 
   @Override
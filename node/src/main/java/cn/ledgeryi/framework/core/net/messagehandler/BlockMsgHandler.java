@@ -48,8 +48,10 @@ public class BlockMsgHandler implements LedgerYiMsgHandler {
     if (!fastForward && !peer.isFastForwardPeer()) {
       check(peer, blockMessage);
     }
-    if (peer.getSyncBlockRequested().containsKey(blockId)) {
-      peer.getSyncBlockRequested().remove(blockId);
+    Long requestTime = peer.getSyncBlockRequested().remove(blockId);
+    if (requestTime != null) {
+      peer.getSyncFetchStatistics().onBlockReceived(requestTime, blockMessage.getData().length,
+          peer.getNodeStatistics().pingMessageLatency.getAvrg());
       syncService.processBlock(peer, blockMessage);
     } else {
       Long time = peer.getAdvInvRequest().remove(new Item(blockId, InventoryType.BLOCK));
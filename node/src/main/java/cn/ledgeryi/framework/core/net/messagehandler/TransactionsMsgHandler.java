@@ -1,5 +1,7 @@
 package cn.ledgeryi.framework.core.net.messagehandler;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -7,6 +9,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import cn.ledgeryi.common.core.exception.P2pException;
 import lombok.Getter;
@@ -47,16 +50,54 @@ public class TransactionsMsgHandler implements LedgerYiMsgHandler {
 
   private ScheduledExecutorService smartContractExecutor = Executors.newSingleThreadScheduledExecutor();
 
+  /**
+   * transactions that passed the stateless checks on the handle pool, applied one by one by the
+   * push thread. it is bounded, a full queue stalls the handle pool, which makes the node busy
+   * and stops it from fetching more transactions.
+   */
+  private BlockingQueue<TxEvent> pushQueue = new LinkedBlockingQueue<>(MAX_TX_SIZE);
+
+  private ExecutorService pushExecutor = Executors.newSingleThreadExecutor(
+      r -> new Thread(r, "tx-push"));
+
+  private volatile boolean isRunning = true;
+
+  @Getter
+  private final LongAdder preValidateFailed = new LongAdder();
+  @Getter
+  private final LongAdder pushQueueStalls = new LongAdder();
+  @Getter
+  private final LongAdder pushed = new LongAdder();
+  @Getter
+  private final LongAdder pushFailed = new LongAdder();
+
   public void init() {
     handleSmartContract();
+    pushExecutor.submit(this::pushLoop);
   }
 
   public void close() {
+    isRunning = false;
     smartContractExecutor.shutdown();
+    pushExecutor.shutdownNow();
   }
 
   public boolean isBusy() {
-    return queue.size() + smartContractQueue.size() > MAX_TX_SIZE;
+    return queue.size() + smartContractQueue.size() + pushQueue.size() > MAX_TX_SIZE;
+  }
+
+  public int getPushQueueSize() {
+    return pushQueue.size();
+  }
+
+  /**
+   * queue depths and counters, for the periodic peer stats log.
+   */
+  public String getStatus() {
+    return String.format("tx handler: handle queue %d, smart contract queue %d, push queue %d, "
+            + "pushed %d, push failed %d, pre-validate failed %d, push queue stalls %d",
+        queue.size(), smartContractQueue.size(), pushQueue.size(), pushed.sum(),
+        pushFailed.sum(), preValidateFailed.sum(), pushQueueStalls.sum());
   }
 
   @Override
@@ -64,15 +105,21 @@ public class TransactionsMsgHandler implements LedgerYiMsgHandler {
     TransactionsMessage transactionsMessage = (TransactionsMessage) msg;
     log.debug("[processTxMessage] [processMessage] {} ,{} from peer {}", msg,
             ((TransactionsMessage) msg).getTransactions(), peer.getInetAddress());
-    check(peer, transactionsMessage);
+    List<TransactionMessage> txs = new ArrayList<>(
+        transactionsMessage.getTransactions().getTransactionsCount());
     for (Transaction tx : transactionsMessage.getTransactions().getTransactionsList()) {
-      txHandlePool.submit(() -> handleTransaction(peer, new TransactionMessage(tx)));
+      txs.add(new TransactionMessage(tx));
+    }
+    check(peer, transactionsMessage, txs);
+    for (TransactionMessage tx : txs) {
+      txHandlePool.submit(() -> handleTransaction(peer, tx));
     }
   }
 
-  private void check(PeerConnection peer, TransactionsMessage msg) throws P2pException {
-    for (Transaction tx : msg.getTransactions().getTransactionsList()) {
-      Item item = new Item(new TransactionMessage(tx).getMessageId(), InventoryType.TX);
+  private void check(PeerConnection peer, TransactionsMessage msg, List<TransactionMessage> txs)
+      throws P2pException {
+    for (TransactionMessage tx : txs) {
+      Item item = new Item(tx.getMessageId(), InventoryType.TX);
       if (!peer.getAdvInvRequest().containsKey(item)) {
         throw new P2pException(P2pException.TypeEnum.BAD_MESSAGE, "tx: " + msg.getMessageId() + " without request.");
       }
@@ -93,6 +140,10 @@ public class TransactionsMsgHandler implements LedgerYiMsgHandler {
     }, 1000, 20, TimeUnit.MILLISECONDS);
   }
 
+  /**
+   * runs on the handle pool: the checks that do not change state, then hand over to the push
+   * thread.
+   */
   private void handleTransaction(PeerConnection peer, TransactionMessage tx) {
     if (peer.isDisconnect()) {
       log.warn("Drop tx {} from {}, peer is disconnect.", tx.getMessageId(), peer.getInetAddress());
@@ -102,19 +153,62 @@ public class TransactionsMsgHandler implements LedgerYiMsgHandler {
       return;
     }
     try {
-      ledgerYiNetDelegate.pushTransaction(tx.getTransactionCapsule());
-      advService.broadcast(tx);
-    } catch (P2pException e) {
-      log.warn("Tx {} from peer {} process failed. type: {}, reason: {}",
-          tx.getMessageId(), peer.getInetAddress(), e.getType(), e.getMessage());
-      if (e.getType().equals(P2pException.TypeEnum.BAD_TX)) {
-        peer.disconnect(ReasonCode.BAD_TX);
+      ledgerYiNetDelegate.preValidateTransaction(tx.getTransactionCapsule());
+      TxEvent event = new TxEvent(peer, tx);
+      if (!pushQueue.offer(event)) {
+        pushQueueStalls.increment();
+        pushQueue.put(event);
       }
+    } catch (P2pException e) {
+      preValidateFailed.increment();
+      processFailed(peer, tx, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
     } catch (Exception e) {
       log.error("Tx {} from peer {} process failed.", tx.getMessageId(), peer.getInetAddress(), e);
     }
   }
 
+  /**
+   * the only thread that applies peer transactions to the pending state.
+   */
+  private void pushLoop() {
+    while (isRunning) {
+      TxEvent event;
+      try {
+        event = pushQueue.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      PeerConnection peer = event.getPeer();
+      TransactionMessage tx = event.getMsg();
+      // the same transaction may have passed the checks for several peers
+      if (advService.getMessage(new Item(tx.getMessageId(), InventoryType.TX)) != null) {
+        continue;
+      }
+      try {
+        ledgerYiNetDelegate.pushTransaction(tx.getTransactionCapsule());
+        advService.broadcast(tx);
+        pushed.increment();
+      } catch (P2pException e) {
+        pushFailed.increment();
+        processFailed(peer, tx, e);
+      } catch (Throwable e) {
+        pushFailed.increment();
+        log.error("Tx {} from peer {} process failed.", tx.getMessageId(), peer.getInetAddress(), e);
+      }
+    }
+  }
+
+  private void processFailed(PeerConnection peer, TransactionMessage tx, P2pException e) {
+    log.warn("Tx {} from peer {} process failed. type: {}, reason: {}",
+        tx.getMessageId(), peer.getInetAddress(), e.getType(), e.getMessage());
+    if (e.getType().equals(P2pException.TypeEnum.BAD_TX)) {
+      peer.disconnect(ReasonCode.BAD_TX);
+    }
+  }
+
   class TxEvent {
 
     @Getter
@@ -84,6 +84,8 @@ public class PeerConnection extends Channel {
   @Setter
   @Getter
   private Map<BlockId, Long> syncBlockRequested = new ConcurrentHashMap<>();
+  @Getter
+  private final SyncFetchStatistics syncFetchStatistics = new SyncFetchStatistics();
   @Setter
   @Getter
   private Pair<Deque<BlockId>, Long> syncChainRequested = null;
@@ -137,6 +139,8 @@ public class PeerConnection extends Channel {
     return String.format(
         "Peer %s [%8s]\n"
             + "ping msg: count %d, max-average-min-last: %d %d %d %d\n"
+            + "send msg: count %d, max-average-min-last: %d %d %d %d\n"
+            + "send queue: high %d, low %d\n"
             + "connect time: %ds\n"
             + "last know block num: %s\n"
             + "needSyncFromPeer:%b\n"
@@ -146,7 +150,8 @@ public class PeerConnection extends Channel {
             + "syncBlockRequestedSize:%d\n"
             + "remainNum:%d\n"
             + "syncChainRequested:%d\n"
-            + "blockInProcess:%d\n",
+            + "blockInProcess:%d\n"
+            + "%s\n",
         getNode().getHost() + ":" + getNode().getPort(),
         getNode().getHexIdShort(),
 
@@ -156,6 +161,14 @@ public class PeerConnection extends Channel {
         getNodeStatistics().pingMessageLatency.getMin(),
         getNodeStatistics().pingMessageLatency.getLast(),
 
+        getNodeStatistics().sendMessageLatency.getCount(),
+        getNodeStatistics().sendMessageLatency.getMax(),
+        getNodeStatistics().sendMessageLatency.getAvrg(),
+        getNodeStatistics().sendMessageLatency.getMin(),
+        getNodeStatistics().sendMessageLatency.getLast(),
+        msgQueue.getHighQueueSize(),
+        msgQueue.getLowQueueSize(),
+
         (now - getStartTime()) / 1000,
         fastForwardBlock != null ? fastForwardBlock.getNum() : blockBothHave.getNum(),
         isNeedSyncFromPeer(),
@@ -165,7 +178,8 @@ public class PeerConnection extends Channel {
         syncBlockRequested.size(),
         remainNum,
         syncChainRequested == null ? 0 : (now - syncChainRequested.getValue()) / 1000,
-        syncBlockInProcess.size())
+        syncBlockInProcess.size(),
+        syncFetchStatistics)
         + nodeStatistics.toString() + "\n";
   }
 
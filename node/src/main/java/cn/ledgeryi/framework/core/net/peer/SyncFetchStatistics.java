@@ -0,0 +1,87 @@
+package cn.ledgeryi.framework.core.net.peer;
+
+import static cn.ledgeryi.chainbase.core.config.Parameter.NetConstants.MAX_BLOCK_FETCH_PER_PEER;
+
+/**
+ * Block download rate of a peer during sync. The number of blocks requested from the peer at a
+ * time follows the rate, so that a request is served in about {@link #TARGET_FETCH_TIME}.
+ */
+public class SyncFetchStatistics {
+
+  // well within SYNC_TIME_OUT, a block still missing after this long is re-requested elsewhere
+  public static final long TARGET_FETCH_TIME = 2000;
+
+  private static final int MIN_FETCH_SIZE = 5;
+
+  private static final double ALPHA = 0.2;
+
+  // milliseconds the peer takes to deliver one block, 0 until the first block arrives
+  private double blockTime;
+  private double blockSize;
+  private long lastReceiveTime;
+  private long blockCount;
+  private long byteCount;
+
+  /**
+   * @param requestTime when the block was requested
+   * @param rtt the round trip time to the peer, taken off the first block of a request
+   */
+  public synchronized void onBlockReceived(long requestTime, int size, long rtt) {
+    long now = System.currentTimeMillis();
+    long sample;
+    if (lastReceiveTime > requestTime) {
+      sample = now - lastReceiveTime;
+    } else {
+      sample = now - requestTime - rtt;
+    }
+    sample = Math.max(sample, 1);
+    if (blockCount == 0) {
+      blockTime = sample;
+      blockSize = size;
+    } else {
+      blockTime += ALPHA * (sample - blockTime);
+      blockSize += ALPHA * (size - blockSize);
+    }
+    lastReceiveTime = now;
+    blockCount++;
+    byteCount += size;
+  }
+
+  /**
+   * blocks to keep requested from the peer.
+   */
+  public synchronized int getFetchSize() {
+    if (blockTime == 0) {
+      return MAX_BLOCK_FETCH_PER_PEER;
+    }
+    int size = (int) (TARGET_FETCH_TIME / blockTime);
+    return Math.max(MIN_FETCH_SIZE, Math.min(MAX_BLOCK_FETCH_PER_PEER, size));
+  }
+
+  public synchronized double getBlockTime() {
+    return blockTime;
+  }
+
+  public synchronized double getBlocksPerSecond() {
+    return blockTime == 0 ? 0 : 1000 / blockTime;
+  }
+
+  public synchronized double getBytesPerSecond() {
+    return blockTime == 0 ? 0 : blockSize * 1000 / blockTime;
+  }
+
+  public synchronized long getBlockCount() {
+    return blockCount;
+  }
+
+  public synchronized long getByteCount() {
+    return byteCount;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("sync fetch: blocks %d, bytes %d, rate %.1f blocks/s %.0f bytes/s, "
+        + "fetch size %d", blockCount, byteCount, getBlocksPerSecond(), getBytesPerSecond(),
+        getFetchSize());
+  }
+}
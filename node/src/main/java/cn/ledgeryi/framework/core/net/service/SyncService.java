@@ -9,28 +9,34 @@ import cn.ledgeryi.common.utils.Pair;
 import cn.ledgeryi.protos.Protocol;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import cn.ledgeryi.framework.common.overlay.server.Channel.LedgerYiState;
+import cn.ledgeryi.framework.core.config.args.Args;
 import cn.ledgeryi.framework.core.net.LedgerYiNetDelegate;
 import cn.ledgeryi.framework.core.net.message.BlockMessage;
 import cn.ledgeryi.framework.core.net.message.FetchInvDataMessage;
 import cn.ledgeryi.framework.core.net.message.SyncBlockChainMessage;
 import cn.ledgeryi.framework.core.net.peer.PeerConnection;
-
-import static cn.ledgeryi.chainbase.core.config.Parameter.NetConstants.MAX_BLOCK_FETCH_PER_PEER;
+import cn.ledgeryi.framework.core.net.peer.SyncFetchStatistics;
 
 @Slf4j(topic = "net")
 @Component
@@ -39,6 +45,9 @@ public class SyncService {
   @Autowired
   private LedgerYiNetDelegate ledgerYiNetDelegate;
 
+  // blocks requested, received or waiting for application, bounds the reorder buffer
+  private static final int MAX_SYNC_BLOCKS_BUFFERED = 1000;
+
   private Map<BlockMessage, PeerConnection> blockWaitToProcess = new ConcurrentHashMap<>();
 
   private Map<BlockMessage, PeerConnection> blockJustReceived = new ConcurrentHashMap<>();
@@ -47,27 +56,41 @@ public class SyncService {
       .expireAfterWrite(1, TimeUnit.HOURS).initialCapacity(10_000)
       .recordStats().build();
 
+  // blocks already requested a second time, a block is re-requested at most once
+  private Cache<BlockId, Long> reRequestedBlockIds = CacheBuilder.newBuilder().maximumSize(10_000)
+      .expireAfterWrite(1, TimeUnit.HOURS).build();
+
   private ScheduledExecutorService fetchExecutor = Executors.newSingleThreadScheduledExecutor();
 
   private ScheduledExecutorService blockHandleExecutor = Executors
       .newSingleThreadScheduledExecutor();
 
+  // checks the signatures and merkle root of downloaded blocks while earlier ones are applied
+  private ExecutorService blockVerifyExecutor;
+
+  private Map<BlockId, Future<?>> blockVerifying = new ConcurrentHashMap<>();
+
   private volatile boolean handleFlag = false;
 
   @Setter
   private volatile boolean fetchFlag = false;
 
   public void init() {
+    blockVerifyExecutor = Executors.newFixedThreadPool(
+        Args.getInstance().getValidateSignThreadNum(),
+        new ThreadFactoryBuilder().setNameFormat("sync-verify-%d").build());
+
     fetchExecutor.scheduleWithFixedDelay(() -> {
       try {
         if (fetchFlag) {
           fetchFlag = false;
           startFetchSyncBlock();
         }
+        reRequestStragglers();
       } catch (Exception e) {
         log.error("Fetch sync block error.", e);
       }
-    }, 10, 1, TimeUnit.SECONDS);
+    }, 10_000, 100, TimeUnit.MILLISECONDS);
 
     blockHandleExecutor.scheduleWithFixedDelay(() -> {
       try {
@@ -84,6 +107,9 @@ public class SyncService {
   public void close() {
     fetchExecutor.shutdown();
     blockHandleExecutor.shutdown();
+    if (blockVerifyExecutor != null) {
+      blockVerifyExecutor.shutdownNow();
+    }
   }
 
   public void startSync(PeerConnection peer) {
@@ -114,6 +140,7 @@ public class SyncService {
     synchronized (blockJustReceived) {
       blockJustReceived.put(blockMessage, peer);
     }
+    preVerify(blockMessage.getBlockCapsule());
     handleFlag = true;
     if (peer.isIdle()) {
       if (peer.getRemainNum() > 0
@@ -122,6 +149,10 @@ public class SyncService {
       } else {
         fetchFlag = true;
       }
+    } else if (peer.getSyncBlockRequested().size()
+        <= peer.getSyncFetchStatistics().getFetchSize() / 2) {
+      // top the peer up before it runs dry
+      fetchFlag = true;
     }
   }
 
@@ -183,26 +214,45 @@ public class SyncService {
     return summary;
   }
 
+  /**
+   * hands out the missing blocks to the syncing peers, fastest first, each peer is kept at the
+   * fetch size its measured rate allows.
+   */
   private void startFetchSyncBlock() {
     HashMap<PeerConnection, List<BlockId>> send = new HashMap<>();
+    List<PeerConnection> peers = ledgerYiNetDelegate.getActivePeer().stream()
+        .filter(peer -> peer.isNeedSyncFromPeer() && peer.getSyncChainRequested() == null
+            && peer.getAdvInvRequest().isEmpty())
+        .sorted(Comparator.comparingDouble(peer -> peer.getSyncFetchStatistics().getBlockTime()))
+        .collect(Collectors.toList());
 
-    ledgerYiNetDelegate.getActivePeer().stream()
-        .filter(peer -> peer.isNeedSyncFromPeer() && peer.isIdle())
-        .forEach(peer -> {
-          if (!send.containsKey(peer)) {
-            send.put(peer, new LinkedList<>());
-          }
-          for (BlockId blockId : peer.getSyncBlockToFetch()) {
-            if (requestBlockIds.getIfPresent(blockId) == null) {
-              requestBlockIds.put(blockId, System.currentTimeMillis());
-              peer.getSyncBlockRequested().put(blockId, System.currentTimeMillis());
-              send.get(peer).add(blockId);
-              if (send.get(peer).size() >= MAX_BLOCK_FETCH_PER_PEER) {
-                break;
-              }
-            }
-          }
-        });
+    int buffered = blockJustReceived.size() + blockWaitToProcess.size();
+    for (PeerConnection peer : ledgerYiNetDelegate.getActivePeer()) {
+      buffered += peer.getSyncBlockRequested().size();
+    }
+    int budget = MAX_SYNC_BLOCKS_BUFFERED - buffered;
+
+    for (PeerConnection peer : peers) {
+      int room = Math.min(budget,
+          peer.getSyncFetchStatistics().getFetchSize() - peer.getSyncBlockRequested().size());
+      if (room <= 0) {
+        continue;
+      }
+      List<BlockId> blockIds = new LinkedList<>();
+      long now = System.currentTimeMillis();
+      for (BlockId blockId : peer.getSyncBlockToFetch()) {
+        if (blockIds.size() >= room) {
+          break;
+        }
+        if (requestBlockIds.getIfPresent(blockId) == null) {
+          requestBlockIds.put(blockId, now);
+          peer.getSyncBlockRequested().put(blockId, now);
+          blockIds.add(blockId);
+        }
+      }
+      budget -= blockIds.size();
+      send.put(peer, blockIds);
+    }
 
     send.forEach((peer, blockIds) -> {
       if (!blockIds.isEmpty()) {
@@ -211,6 +261,47 @@ public class SyncService {
     });
   }
 
+  /**
+   * a block that the application waits for and that is overdue from its peer is requested once
+   * more from the fastest other peer that has it.
+   */
+  private void reRequestStragglers() {
+    List<PeerConnection> peers = ledgerYiNetDelegate.getActivePeer().stream()
+        .filter(PeerConnection::isNeedSyncFromPeer).collect(Collectors.toList());
+    if (peers.size() < 2) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    peers.stream().map(peer -> peer.getSyncBlockToFetch().peek())
+        .filter(blockId -> blockId != null && reRequestedBlockIds.getIfPresent(blockId) == null)
+        .distinct()
+        .forEach(blockId -> {
+          List<PeerConnection> holders = peers.stream()
+              .filter(peer -> peer.getSyncBlockRequested().containsKey(blockId))
+              .collect(Collectors.toList());
+          if (holders.size() != 1) {
+            return;
+          }
+          PeerConnection slow = holders.get(0);
+          Long requestTime = slow.getSyncBlockRequested().get(blockId);
+          if (requestTime == null || now - requestTime < SyncFetchStatistics.TARGET_FETCH_TIME) {
+            return;
+          }
+          peers.stream()
+              .filter(peer -> peer != slow && peer.getSyncChainRequested() == null
+                  && peer.getSyncBlockToFetch().contains(blockId))
+              .min(Comparator.comparingDouble(peer -> peer.getSyncFetchStatistics().getBlockTime()))
+              .ifPresent(peer -> {
+                reRequestedBlockIds.put(blockId, now);
+                peer.getSyncBlockRequested().put(blockId, now);
+                peer.sendMessage(new FetchInvDataMessage(Collections.singletonList(blockId),
+                    Protocol.Inventory.InventoryType.BLOCK));
+                log.info("Re-request block {} from {}, waited {}ms on {}.", blockId.getString(),
+                    peer.getInetAddress(), now - requestTime, slow.getInetAddress());
+              });
+        });
+  }
+
   private synchronized void handleSyncBlock() {
     synchronized (blockJustReceived) {
       blockWaitToProcess.putAll(blockJustReceived);
@@ -224,6 +315,7 @@ public class SyncService {
         blockWaitToProcess.forEach((msg, peerConnection) -> {
           if (peerConnection.isDisconnect()) {
             blockWaitToProcess.remove(msg);
+            cancelVerify(msg.getBlockId());
             invalid(msg.getBlockId());
             return;
           }
@@ -239,15 +331,52 @@ public class SyncService {
             blockWaitToProcess.remove(msg);
             isProcessed[0] = true;
             processSyncBlock(msg.getBlockCapsule());
+          } else if (ledgerYiNetDelegate.containBlock(msg.getBlockId())) {
+            // the second copy of a re-requested block
+            blockWaitToProcess.remove(msg);
+            cancelVerify(msg.getBlockId());
           }
         });
       }
     }
   }
 
+  private void preVerify(BlockCapsule block) {
+    blockVerifying.computeIfAbsent(block.getBlockId(), id -> blockVerifyExecutor.submit(() -> {
+      try {
+        ledgerYiNetDelegate.preVerifyBlock(block);
+      } catch (Exception e) {
+        // pushBlock repeats the checks of a block that is not pre-verified and rejects it
+        log.warn("Pre-verify sync block {} failed, reason: {}", id.getString(), e.getMessage());
+      }
+    }));
+  }
+
+  private void cancelVerify(BlockId blockId) {
+    Future<?> future = blockVerifying.remove(blockId);
+    if (future != null) {
+      future.cancel(false);
+    }
+  }
+
+  private void awaitVerify(BlockId blockId) {
+    Future<?> future = blockVerifying.remove(blockId);
+    if (future == null) {
+      return;
+    }
+    try {
+      future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      log.warn("Pre-verify sync block {} failed, reason: {}", blockId.getString(), e.getMessage());
+    }
+  }
+
   private void processSyncBlock(BlockCapsule block) {
     boolean flag = true;
     BlockId blockId = block.getBlockId();
+    awaitVerify(blockId);
     try {
       ledgerYiNetDelegate.processBlock(block);
     } catch (Exception e) {
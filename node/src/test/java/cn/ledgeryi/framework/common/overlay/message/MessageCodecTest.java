@@ -0,0 +1,128 @@
+package cn.ledgeryi.framework.common.overlay.message;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import cn.ledgeryi.chainbase.common.message.Message;
+import cn.ledgeryi.chainbase.core.capsule.BlockCapsule;
+import cn.ledgeryi.chainbase.core.store.DynamicPropertiesStore;
+import cn.ledgeryi.framework.common.overlay.discover.node.statistics.NodeStatistics;
+import cn.ledgeryi.framework.common.overlay.server.Channel;
+import cn.ledgeryi.framework.common.overlay.server.LedgerYiProtobufVarint32FrameDecoder;
+import cn.ledgeryi.framework.common.overlay.server.LedgerYiProtobufVarint32LengthFieldPrepender;
+import cn.ledgeryi.framework.core.net.message.BlockMessage;
+import cn.ledgeryi.protos.Protocol.Block;
+import cn.ledgeryi.protos.Protocol.BlockHeader;
+import cn.ledgeryi.protos.Protocol.Transaction;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * a large block through the length prepender, the frame decoder and the codec, the way it goes
+ * over a connection.
+ */
+public class MessageCodecTest {
+
+  private static final int PAYLOAD_SIZE = 2 * 1024 * 1024;
+  private static final int TRANSACTIONS = 32;
+  // the frame reaches the decoder in pieces, the way the socket reads it
+  private static final int READ_SIZE = 64 * 1024;
+
+  @Before
+  public void init() {
+    // the proto filter is off, a mocked store answers 0
+    Message.setDynamicPropertiesStore(Mockito.mock(DynamicPropertiesStore.class));
+  }
+
+  @Test
+  public void largeBlockRoundTrip() throws IOException {
+    BlockMessage message = new BlockMessage(new BlockCapsule(createBlock()));
+    byte[] payload = message.getData();
+    assertTrue(payload.length >= PAYLOAD_SIZE);
+
+    EmbeddedChannel encoder = new EmbeddedChannel(
+        new LedgerYiProtobufVarint32LengthFieldPrepender());
+    assertTrue(encoder.writeOutbound(message.getSendData()));
+    ByteBuf encoded = encoder.readOutbound();
+    // the frame refers to the payload of the message, nothing was copied
+    assertTrue(sharesArray(encoded, payload));
+    byte[] wire = ByteBufUtil.getBytes(encoded);
+    encoded.release();
+    assertArrayEquals(frame(message.getType().asByte(), payload), wire);
+
+    Channel channel = new Channel() {
+      {
+        nodeStatistics = new NodeStatistics();
+      }
+    };
+    MessageCodec codec = new MessageCodec();
+    codec.setChannel(channel);
+    EmbeddedChannel decoder = new EmbeddedChannel(
+        new LedgerYiProtobufVarint32FrameDecoder(channel), codec);
+    for (int offset = 0; offset < wire.length; offset += READ_SIZE) {
+      decoder.writeInbound(Unpooled.wrappedBuffer(wire, offset,
+          Math.min(READ_SIZE, wire.length - offset)));
+    }
+    Object received = decoder.readInbound();
+    assertTrue(received instanceof BlockMessage);
+    assertNull(decoder.readInbound());
+    BlockMessage block = (BlockMessage) received;
+    assertArrayEquals(payload, block.getData());
+    assertEquals(message.getBlockId(), block.getBlockId());
+    assertEquals(message, block);
+    // the frame decoder hands the codec a slice, the codec copies it into the message once
+    assertFalse(sharesArray(Unpooled.wrappedBuffer(wire), block.getData()));
+  }
+
+  /**
+   * whether one of the buffers of the frame is the payload array itself.
+   */
+  private static boolean sharesArray(ByteBuf frame, byte[] payload) {
+    for (ByteBuffer buffer : frame.nioBuffers()) {
+      if (buffer.hasArray() && buffer.array() == payload) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * varint32 length, type and payload, as the prepender wrote them before it stopped copying.
+   */
+  private static byte[] frame(byte type, byte[] payload) throws IOException {
+    int length = payload.length + 1;
+    byte[] frame = new byte[CodedOutputStream.computeUInt32SizeNoTag(length) + length];
+    CodedOutputStream out = CodedOutputStream.newInstance(frame);
+    out.writeUInt32NoTag(length);
+    out.write(type);
+    out.writeRawBytes(payload);
+    out.checkNoSpaceLeft();
+    return frame;
+  }
+
+  private static Block createBlock() {
+    Random random = new Random(1);
+    Block.Builder block = Block.newBuilder().setBlockHeader(BlockHeader.newBuilder()
+        .setRawData(BlockHeader.raw.newBuilder().setNumber(1).setTimestamp(1)));
+    byte[] data = new byte[PAYLOAD_SIZE / TRANSACTIONS];
+    for (int i = 0; i < TRANSACTIONS; i++) {
+      random.nextBytes(data);
+      block.addTransactions(Transaction.newBuilder()
+          .setRawData(Transaction.raw.newBuilder().setData(ByteString.copyFrom(data))));
+    }
+    return block.build();
+  }
+}
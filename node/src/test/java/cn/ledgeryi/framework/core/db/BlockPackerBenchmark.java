@@ -0,0 +1,112 @@
+package cn.ledgeryi.framework.core.db;
+
+import cn.ledgeryi.chainbase.core.capsule.BlockCapsule;
+import cn.ledgeryi.chainbase.core.capsule.TransactionCapsule;
+import cn.ledgeryi.chainbase.core.config.Parameter;
+import cn.ledgeryi.protos.Protocol.Transaction;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Packing the pending pool into a block, without running the transactions. The packer keeps the
+ * ids and the block size as it goes; rebuildPerTransaction adds to the block one by one and asks
+ * it for its size, as generateBlock did before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BlockPackerBenchmark {
+
+  @Param({"5000", "20000", "50000"})
+  private int pending;
+
+  private List<TransactionCapsule> transactions;
+  private PendingTransactionPool pool;
+  private BlockCapsule block;
+
+  @Setup(Level.Trial)
+  public void createTransactions() {
+    Random random = new Random(1);
+    transactions = new ArrayList<>(pending);
+    byte[] data = new byte[40];
+    for (int i = 0; i < pending; i++) {
+      random.nextBytes(data);
+      transactions.add(new TransactionCapsule(Transaction.newBuilder()
+          .setRawData(Transaction.raw.newBuilder()
+              .setExpiration(i)
+              .setData(ByteString.copyFrom(data)))
+          .build()));
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void fillPool() {
+    pool = new PendingTransactionPool(pending);
+    for (TransactionCapsule tx : transactions) {
+      pool.add(tx);
+    }
+    block = new BlockCapsule(1, ByteString.copyFrom(new byte[32]), 1);
+  }
+
+  @Benchmark
+  public BlockCapsule packer() {
+    BlockPacker packer = new BlockPacker(block);
+    TransactionCapsule tx;
+    while ((tx = pool.peek()) != null) {
+      if (packer.sizeWith(tx) > Parameter.ChainConstant.BLOCK_SIZE) {
+        break;
+      }
+      if (!packer.isPacked(tx)) {
+        packer.add(tx);
+      }
+      pool.remove(tx.getTransactionId());
+    }
+    return packer.build();
+  }
+
+  @Benchmark
+  public BlockCapsule rebuildPerTransaction() {
+    Set<TransactionCapsule> packed = new HashSet<>();
+    TransactionCapsule tx;
+    while ((tx = pool.peek()) != null) {
+      long size = block.getInstance().getSerializedSize() + tx.getSerializedSize() + 3;
+      if (size > Parameter.ChainConstant.BLOCK_SIZE) {
+        break;
+      }
+      if (packed.add(tx)) {
+        block.addTransaction(tx);
+      }
+      pool.remove(tx.getTransactionId());
+    }
+    return block;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(BlockPackerBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -0,0 +1,73 @@
+package cn.ledgeryi.framework.core.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import cn.ledgeryi.chainbase.core.capsule.BlockCapsule;
+import cn.ledgeryi.chainbase.core.capsule.TransactionCapsule;
+import cn.ledgeryi.protos.Protocol.Transaction;
+import com.google.protobuf.ByteString;
+import org.junit.Test;
+
+public class BlockPackerTest {
+
+  @Test
+  public void packedTransactionsAreKnown() {
+    BlockPacker packer = new BlockPacker(createBlock());
+    TransactionCapsule tx = createTransaction(1, 10);
+    assertFalse(packer.isPacked(tx));
+    packer.add(tx);
+    assertTrue(packer.isPacked(tx));
+    assertTrue(packer.isPacked(new TransactionCapsule(tx.getInstance())));
+    assertFalse(packer.isPacked(createTransaction(2, 10)));
+  }
+
+  @Test
+  public void sizeFollowsTheBuiltBlock() {
+    BlockCapsule block = createBlock();
+    BlockPacker packer = new BlockPacker(block);
+    assertEquals(block.getInstance().getSerializedSize(), packer.getSize());
+    for (int i = 0; i < 100; i++) {
+      // small and large transactions, the length prefix takes one to three bytes
+      TransactionCapsule tx = createTransaction(i, i % 2 == 0 ? 10 : 20_000);
+      long bound = packer.sizeWith(tx);
+      packer.add(tx);
+      assertTrue(packer.getSize() <= bound);
+    }
+    assertEquals(100, packer.getCount());
+    long size = packer.getSize();
+    assertSame(block, packer.build());
+    assertEquals(100, block.getTransactions().size());
+    assertEquals(100, block.getInstance().getTransactionsCount());
+    assertEquals(block.getInstance().getSerializedSize(), size);
+    assertEquals(block.getInstance().getSerializedSize(), block.getData().length);
+  }
+
+  @Test
+  public void buildKeepsTheOrder() {
+    BlockCapsule block = createBlock();
+    BlockPacker packer = new BlockPacker(block);
+    for (int i = 0; i < 10; i++) {
+      packer.add(createTransaction(i, 10));
+    }
+    packer.build();
+    for (int i = 0; i < 10; i++) {
+      assertEquals(i, block.getInstance().getTransactions(i).getRawData().getExpiration());
+      assertEquals(i, block.getTransactions().get(i).getExpiration());
+    }
+  }
+
+  private static BlockCapsule createBlock() {
+    return new BlockCapsule(1, ByteString.copyFrom(new byte[32]), 1);
+  }
+
+  private static TransactionCapsule createTransaction(long expiration, int dataSize) {
+    return new TransactionCapsule(Transaction.newBuilder()
+        .setRawData(Transaction.raw.newBuilder()
+            .setExpiration(expiration)
+            .setData(ByteString.copyFrom(new byte[dataSize])))
+        .build());
+  }
+}
@@ -0,0 +1,185 @@
+package cn.ledgeryi.framework.core.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import cn.ledgeryi.chainbase.core.capsule.TransactionCapsule;
+import cn.ledgeryi.common.utils.ByteArray;
+import cn.ledgeryi.protos.Protocol.Transaction.Contract.ContractType;
+import cn.ledgeryi.protos.contract.SmartContractOuterClass.TriggerSmartContract;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class PendingTransactionPoolTest {
+
+  private static final byte[] A = owner(1);
+  private static final byte[] B = owner(2);
+  private static final byte[] C = owner(3);
+
+  @Test
+  public void peekIsTheOldest() {
+    PendingTransactionPool pool = new PendingTransactionPool(10);
+    assertNull(pool.peek());
+    TransactionCapsule a1 = createTransaction(A, 1);
+    TransactionCapsule b1 = createTransaction(B, 1);
+    pool.add(a1);
+    pool.add(b1);
+    assertSame(a1, pool.peek());
+    assertSame(a1, pool.peek());
+    pool.remove(a1.getTransactionId());
+    assertSame(b1, pool.peek());
+  }
+
+  @Test
+  public void addRejectsDuplicatesAndAFullPool() {
+    PendingTransactionPool pool = new PendingTransactionPool(2);
+    TransactionCapsule a1 = createTransaction(A, 1);
+    assertTrue(pool.add(a1));
+    assertFalse(pool.add(createTransaction(A, 1)));
+    assertFalse(pool.isFull());
+    assertTrue(pool.add(createTransaction(B, 1)));
+    assertTrue(pool.isFull());
+    assertFalse(pool.add(createTransaction(C, 1)));
+    assertEquals(2, pool.size());
+    assertEquals(0, pool.getEvictions());
+    assertTrue(pool.contains(a1.getTransactionId()));
+  }
+
+  @Test
+  public void removeAndClearKeepTheCounts() {
+    PendingTransactionPool pool = new PendingTransactionPool(10);
+    TransactionCapsule a1 = createTransaction(A, 1);
+    TransactionCapsule b1 = createTransaction(B, 1);
+    pool.add(a1);
+    pool.add(createTransaction(A, 2));
+    pool.add(createTransaction(A, 3));
+    pool.add(b1);
+    assertEquals(4, pool.size());
+    assertEquals(2, pool.getShardCount());
+    assertShardSizes(pool, 10, A, 3, B, 1);
+
+    assertTrue(pool.remove(a1.getTransactionId()));
+    assertFalse(pool.remove(a1.getTransactionId()));
+    assertFalse(pool.contains(a1.getTransactionId()));
+    assertShardSizes(pool, 10, A, 2, B, 1);
+
+    assertTrue(pool.remove(b1.getTransactionId()));
+    assertEquals(1, pool.getShardCount());
+    assertShardSizes(pool, 10, A, 2);
+    assertEquals(2, pool.size());
+
+    pool.clear();
+    assertEquals(0, pool.size());
+    assertEquals(0, pool.getShardCount());
+    assertTrue(pool.getShardSizes(10).isEmpty());
+    assertNull(pool.peek());
+    assertNull(pool.evict());
+    assertEquals(0, pool.getOldestAge());
+
+    // nothing of the cleared owners is left over
+    pool.add(createTransaction(B, 2));
+    assertShardSizes(pool, 10, B, 1);
+    assertEquals(1, pool.getShardCount());
+  }
+
+  @Test
+  public void shardSizesAreLargestFirst() {
+    PendingTransactionPool pool = new PendingTransactionPool(10);
+    pool.add(createTransaction(C, 1));
+    pool.add(createTransaction(B, 1));
+    pool.add(createTransaction(B, 2));
+    pool.add(createTransaction(A, 1));
+    pool.add(createTransaction(A, 2));
+    pool.add(createTransaction(A, 3));
+    assertShardSizes(pool, 10, A, 3, B, 2, C, 1);
+    assertShardSizes(pool, 2, A, 3, B, 2);
+  }
+
+  @Test
+  public void evictTakesTheOldestOfTheLargestOwner() {
+    PendingTransactionPool pool = new PendingTransactionPool(10);
+    TransactionCapsule a1 = createTransaction(A, 1);
+    TransactionCapsule b1 = createTransaction(B, 1);
+    pool.add(a1);
+    pool.add(b1);
+    pool.add(createTransaction(B, 2));
+    pool.add(createTransaction(A, 2));
+    pool.add(createTransaction(A, 3));
+
+    assertSame(a1, pool.evict());
+    assertFalse(pool.contains(a1.getTransactionId()));
+    assertShardSizes(pool, 10, B, 2, A, 2);
+
+    // both have two left, b got there first
+    assertSame(b1, pool.evict());
+    assertShardSizes(pool, 10, A, 2, B, 1);
+    assertEquals(3, pool.size());
+    assertEquals(2, pool.getEvictions());
+  }
+
+  @Test
+  public void evictTakesTheOldestWhenAllOwnersHaveOne() {
+    PendingTransactionPool pool = new PendingTransactionPool(10);
+    TransactionCapsule b1 = createTransaction(B, 1);
+    TransactionCapsule a1 = createTransaction(A, 1);
+    TransactionCapsule c1 = createTransaction(C, 1);
+    pool.add(b1);
+    pool.add(a1);
+    pool.add(c1);
+
+    assertSame(b1, pool.evict());
+    assertSame(a1, pool.evict());
+    assertShardSizes(pool, 10, C, 1);
+    assertSame(c1, pool.evict());
+    assertNull(pool.evict());
+    assertEquals(0, pool.getShardCount());
+    assertEquals(3, pool.getEvictions());
+  }
+
+  @Test
+  public void evictMakesRoom() {
+    PendingTransactionPool pool = new PendingTransactionPool(3);
+    pool.add(createTransaction(A, 1));
+    pool.add(createTransaction(A, 2));
+    pool.add(createTransaction(B, 1));
+    assertTrue(pool.isFull());
+    pool.evict();
+    assertFalse(pool.isFull());
+    assertTrue(pool.add(createTransaction(C, 1)));
+    // a is back to one after b
+    assertShardSizes(pool, 10, B, 1, A, 1, C, 1);
+  }
+
+  /**
+   * compares the owners in order, map equality would not.
+   */
+  private static void assertShardSizes(PendingTransactionPool pool, int limit,
+      Object... ownerAndSize) {
+    Map<String, Integer> sizes = new LinkedHashMap<>();
+    for (int i = 0; i < ownerAndSize.length; i += 2) {
+      sizes.put(ByteArray.toHexString((byte[]) ownerAndSize[i]), (Integer) ownerAndSize[i + 1]);
+    }
+    assertEquals(new ArrayList<>(sizes.entrySet()),
+        new ArrayList<>(pool.getShardSizes(limit).entrySet()));
+  }
+
+  private static byte[] owner(int n) {
+    byte[] owner = new byte[21];
+    Arrays.fill(owner, (byte) n);
+    return owner;
+  }
+
+  private static TransactionCapsule createTransaction(byte[] owner, long callValue) {
+    return new TransactionCapsule(TriggerSmartContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(owner))
+        .setCallValue(callValue)
+        .build(), ContractType.TriggerSmartContract);
+  }
+}
@@ -0,0 +1,95 @@
+package cn.ledgeryi.framework.core.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+import cn.ledgeryi.chainbase.common.utils.DBConfig;
+import cn.ledgeryi.chainbase.core.capsule.BlockCapsule;
+import cn.ledgeryi.chainbase.core.capsule.BytesCapsule;
+import cn.ledgeryi.chainbase.core.capsule.TransactionCapsule;
+import cn.ledgeryi.chainbase.core.db.BlockStore;
+import cn.ledgeryi.chainbase.core.db2.common.TxCacheDB;
+import cn.ledgeryi.common.utils.ByteArray;
+import cn.ledgeryi.protos.Protocol.Block;
+import cn.ledgeryi.protos.Protocol.BlockHeader;
+import cn.ledgeryi.protos.Protocol.Transaction;
+import com.google.common.primitives.Longs;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class TransactionCacheTest {
+
+  // the window starts at block HEAD - BLOCK_COUNT + 1 = 501
+  private static final long HEAD = TxCacheDB.BLOCK_COUNT + 500;
+
+  private List<BlockCapsule> blocks;
+
+  @Before
+  public void init() {
+    DBConfig.setDbVersion(2);
+    blocks = new ArrayList<>();
+    for (long num = 1; num <= HEAD; num++) {
+      Block.Builder block = Block.newBuilder().setBlockHeader(BlockHeader.newBuilder()
+          .setRawData(BlockHeader.raw.newBuilder().setNumber(num)));
+      // every hundredth block, and every block around the start of the window
+      int txs = num % 100 == 0 ? 3 : (num >= 490 && num <= 510 ? 1 : 0);
+      for (int i = 0; i < txs; i++) {
+        block.addTransactions(Transaction.newBuilder().setRawData(Transaction.raw.newBuilder()
+            .setExpiration(num)
+            .setData(ByteString.copyFrom(Longs.toByteArray(i)))));
+      }
+      blocks.add(new BlockCapsule(block.build()));
+    }
+  }
+
+  @Test
+  public void warmUpMatchesLiveInsertion() {
+    TxCacheDB live = new TxCacheDB("trans-cache");
+    for (BlockCapsule block : blocks) {
+      byte[] blockNum = Longs.toByteArray(block.getNum());
+      live.flush(rows -> {
+        for (TransactionCapsule tx : block.getTransactions()) {
+          rows.put(tx.getTransactionId().getBytes(), blockNum);
+        }
+      });
+    }
+
+    BlockStore blockStore = Mockito.mock(BlockStore.class);
+    Mockito.when(blockStore.getLimitNumber(anyLong(), anyLong())).thenAnswer(invocation -> {
+      long from = invocation.<Long>getArgument(0);
+      long limit = invocation.<Long>getArgument(1);
+      int start = (int) Math.min(from - 1, blocks.size());
+      return new ArrayList<>(blocks.subList(start, (int) Math.min(start + limit, blocks.size())));
+    });
+    TransactionCache cache = new TransactionCache("trans-cache");
+    cache.warmUp(blockStore, HEAD);
+
+    Map<String, Long> expected = new HashMap<>();
+    Iterator<Entry<byte[], byte[]>> liveEntries = live.iterator();
+    while (liveEntries.hasNext()) {
+      Entry<byte[], byte[]> entry = liveEntries.next();
+      expected.put(ByteArray.toHexString(entry.getKey()), Longs.fromByteArray(entry.getValue()));
+    }
+    Map<String, Long> actual = new HashMap<>();
+    Iterator<Entry<byte[], BytesCapsule>> entries = cache.iterator();
+    while (entries.hasNext()) {
+      Entry<byte[], BytesCapsule> entry = entries.next();
+      actual.put(ByteArray.toHexString(entry.getKey()),
+          Longs.fromByteArray(entry.getValue().getData()));
+    }
+
+    assertFalse(expected.isEmpty());
+    assertEquals(expected, actual);
+    // blocks 490 to 500 left the window, 501 to 510 are in it
+    assertEquals(10 + 3 * (TxCacheDB.BLOCK_COUNT / 100), expected.size());
+  }
+}
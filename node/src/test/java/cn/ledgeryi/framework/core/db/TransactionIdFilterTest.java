@@ -0,0 +1,175 @@
+package cn.ledgeryi.framework.core.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Longs;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.Test;
+
+public class TransactionIdFilterTest {
+
+  private final Map<ByteString, byte[]> store = new ConcurrentHashMap<>();
+
+  @Test
+  public void answersMaybeUntilTheScanIsDone() throws InterruptedException {
+    for (int i = 0; i < 50; i++) {
+      write(null, id(i));
+    }
+    CountDownLatch scanning = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    TransactionIdFilter filter = new TransactionIdFilter(() -> {
+      Iterator<Map.Entry<byte[], byte[]>> ids = storeIds();
+      scanning.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return ids;
+    }, 100, 1_000);
+    filter.init();
+    assertTrue(scanning.await(10, TimeUnit.SECONDS));
+
+    assertFalse(filter.isReady());
+    assertTrue(filter.mightContain(id(0)));
+    assertTrue(filter.mightContain(id(1_000)));
+    // written while the store is scanned, the scan may not see it
+    write(filter, id(50));
+    assertTrue(has(filter, id(50)));
+    assertFalse(has(filter, id(1_000)));
+
+    release.countDown();
+    await(filter::isReady);
+    for (int i = 0; i <= 50; i++) {
+      assertTrue(filter.mightContain(id(i)));
+    }
+    assertFalse(filter.mightContain(id(1_000)));
+    assertFalse(filter.mightContain(id(1_001)));
+  }
+
+  @Test
+  public void growsTwiceAsLargeWhenFull() {
+    TransactionIdFilter filter = new TransactionIdFilter(this::storeIds, 100, 1_000);
+    filter.init();
+    await(filter::isReady);
+    assertEquals(100, filter.getCapacity());
+
+    List<byte[]> ids = new ArrayList<>();
+    for (long expected : new long[] {200, 400, 800}) {
+      while (ids.size() < expected / 2) {
+        byte[] id = id(ids.size());
+        ids.add(id);
+        write(filter, id);
+      }
+      await(() -> filter.getCapacity() == expected);
+      assertFalse(filter.isDisabled());
+      for (byte[] id : ids) {
+        assertTrue(filter.mightContain(id));
+      }
+      assertFalse(filter.mightContain(id(-1)));
+    }
+  }
+
+  @Test
+  public void isDroppedPastTheLimit() {
+    TransactionIdFilter filter = new TransactionIdFilter(this::storeIds, 100, 1_000);
+    filter.init();
+    await(filter::isReady);
+    // grows to 800, then 800 ids ask for a filter of 1,600
+    for (int i = 0; i < 800; i++) {
+      write(filter, id(i));
+      long count = i + 1;
+      if (count == 100 || count == 200 || count == 400) {
+        await(() -> filter.getCapacity() == count * 2);
+      }
+    }
+    await(filter::isDisabled);
+    assertTrue(filter.mightContain(id(-1)));
+    // the store answers alone
+    assertTrue(has(filter, id(0)));
+    assertFalse(has(filter, id(-1)));
+    write(filter, id(800));
+    assertTrue(has(filter, id(800)));
+  }
+
+  @Test
+  public void erasedAndPushedAgainBlocksAnswerFromTheStore() {
+    TransactionIdFilter filter = new TransactionIdFilter(this::storeIds, 100, 1_000);
+    filter.init();
+    await(filter::isReady);
+    List<byte[]> block = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      block.add(id(i));
+    }
+
+    // push: the ids are dups
+    block.forEach(id -> write(filter, id));
+    block.forEach(id -> assertTrue(has(filter, id)));
+
+    // erase on a fork switch: the filter keeps the ids, the store resolves them
+    block.forEach(id -> store.remove(ByteString.copyFrom(id)));
+    block.forEach(id -> assertTrue(filter.mightContain(id)));
+    block.forEach(id -> assertFalse(has(filter, id)));
+
+    // pushed again on the other fork: dups again
+    block.forEach(id -> write(filter, id));
+    block.forEach(id -> assertTrue(has(filter, id)));
+    assertFalse(has(filter, id(10)));
+  }
+
+  /**
+   * store first, then the filter, as TransactionStore.put does.
+   */
+  private void write(TransactionIdFilter filter, byte[] id) {
+    store.put(ByteString.copyFrom(id), new byte[8]);
+    if (filter != null) {
+      filter.put(id);
+    }
+  }
+
+  /**
+   * as TransactionStore.has.
+   */
+  private boolean has(TransactionIdFilter filter, byte[] id) {
+    return filter.mightContain(id) && store.containsKey(ByteString.copyFrom(id));
+  }
+
+  private Iterator<Map.Entry<byte[], byte[]>> storeIds() {
+    return Iterators.transform(store.entrySet().iterator(),
+        e -> Maps.immutableEntry(e.getKey().toByteArray(), e.getValue()));
+  }
+
+  private static byte[] id(long n) {
+    byte[] id = new byte[32];
+    System.arraycopy(Longs.toByteArray(n), 0, id, 0, Longs.BYTES);
+    System.arraycopy(Longs.toByteArray(n * 31 + 7), 0, id, 24, Longs.BYTES);
+    return id;
+  }
+
+  private static void await(BooleanSupplier condition) {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (!condition.getAsBoolean()) {
+      if (System.currentTimeMillis() > deadline) {
+        throw new AssertionError("timed out");
+      }
+      try {
+        Thread.sleep(5);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new AssertionError(e);
+      }
+    }
+  }
+}
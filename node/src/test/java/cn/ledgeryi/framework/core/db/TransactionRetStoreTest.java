@@ -0,0 +1,60 @@
+package cn.ledgeryi.framework.core.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import cn.ledgeryi.protos.Protocol.TransactionInfo;
+import cn.ledgeryi.protos.Protocol.TransactionRet;
+import com.google.common.primitives.Bytes;
+import com.google.protobuf.ByteString;
+import org.junit.Test;
+
+public class TransactionRetStoreTest {
+
+  @Test
+  public void readsTheInfoAtTheIndex() throws Exception {
+    TransactionRet ret = TransactionRet.newBuilder()
+        .setBlockNumber(10)
+        .setBlockTimeStamp(3_000)
+        .addTransactionInfo(createInfo(0))
+        .addTransactionInfo(createInfo(1))
+        .addTransactionInfo(createInfo(2))
+        .build();
+    byte[] value = ret.toByteArray();
+    for (int i = 0; i < 3; i++) {
+      assertEquals(ret.getTransactionInfo(i), TransactionRetStore.readTransactionInfo(value, i));
+    }
+    assertNull(TransactionRetStore.readTransactionInfo(value, 3));
+  }
+
+  @Test
+  public void skipsTheOtherFields() throws Exception {
+    // the block fields between and after the infos on the wire, as a merged value would have them
+    byte[] value = Bytes.concat(
+        TransactionRet.newBuilder().addTransactionInfo(createInfo(0)).build().toByteArray(),
+        TransactionRet.newBuilder().setBlockNumber(10).setBlockTimeStamp(3_000).build()
+            .toByteArray(),
+        TransactionRet.newBuilder().addTransactionInfo(createInfo(1)).build().toByteArray(),
+        TransactionRet.newBuilder().setBlockNumber(11).build().toByteArray());
+    assertEquals(createInfo(0), TransactionRetStore.readTransactionInfo(value, 0));
+    assertEquals(createInfo(1), TransactionRetStore.readTransactionInfo(value, 1));
+    assertNull(TransactionRetStore.readTransactionInfo(value, 2));
+    assertEquals(TransactionRet.parseFrom(value).getTransactionInfo(1),
+        TransactionRetStore.readTransactionInfo(value, 1));
+  }
+
+  @Test
+  public void emptyValueHasNoInfo() throws Exception {
+    assertNull(TransactionRetStore.readTransactionInfo(new byte[0], 0));
+  }
+
+  private static TransactionInfo createInfo(int n) {
+    // logs and internal transactions are nested messages the reader has to skip as a whole
+    return TransactionInfo.newBuilder()
+        .setId(ByteString.copyFrom(new byte[] {(byte) n}))
+        .setBlockNumber(10)
+        .addContractResult(ByteString.copyFromUtf8("result " + n))
+        .addLog(TransactionInfo.Log.newBuilder().setData(ByteString.copyFromUtf8("log " + n)))
+        .build();
+  }
+}
@@ -0,0 +1,89 @@
+package cn.ledgeryi.framework.core.db;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import cn.ledgeryi.chainbase.core.capsule.BlockCapsule;
+import cn.ledgeryi.chainbase.core.capsule.TransactionCapsule;
+import cn.ledgeryi.common.utils.ByteArray;
+import cn.ledgeryi.protos.Protocol.Transaction;
+import com.google.common.primitives.Longs;
+import com.google.protobuf.ByteString;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class TransactionStoreTest {
+
+  @Test
+  public void positionHoldsTheBlockNumberAndTheIndex() {
+    byte[] position = TransactionStore.toPosition(123_456_789L, 42);
+    assertEquals(12, position.length);
+    assertTrue(TransactionStore.isPosition(position));
+    assertEquals(123_456_789L, Longs.fromByteArray(position));
+    assertEquals(42, TransactionStore.getIndexOf(position));
+
+    position = TransactionStore.toPosition(Long.MAX_VALUE, Integer.MAX_VALUE);
+    assertEquals(Long.MAX_VALUE, Longs.fromByteArray(position));
+    assertEquals(Integer.MAX_VALUE, TransactionStore.getIndexOf(position));
+
+    position = TransactionStore.toPosition(1, 0);
+    assertArrayEquals(ByteArray.fromLong(1), Arrays.copyOf(position, 8));
+    assertEquals(0, TransactionStore.getIndexOf(position));
+  }
+
+  @Test
+  public void blockNumberHasNoIndex() {
+    byte[] blockNum = ByteArray.fromLong(7);
+    assertTrue(TransactionStore.isPosition(blockNum));
+    assertEquals(-1, TransactionStore.getIndexOf(blockNum));
+
+    byte[] transaction = createTransaction(1).getData();
+    assertFalse(TransactionStore.isPosition(transaction));
+    assertEquals(-1, TransactionStore.getIndexOf(transaction));
+  }
+
+  @Test
+  public void transactionIsFoundAtItsIndex() {
+    BlockCapsule block = createBlock(5);
+    TransactionCapsule expected = block.getTransactions().get(3);
+    TransactionCapsule found = TransactionStore.findTransaction(block,
+        expected.getTransactionId().getBytes(), 3);
+    assertEquals(expected.getTransactionId(), found.getTransactionId());
+    // a copy, the cached block is not handed out
+    assertNotSame(expected, found);
+  }
+
+  @Test
+  public void indexMismatchFallsBackToAScan() {
+    BlockCapsule block = createBlock(5);
+    TransactionCapsule expected = block.getTransactions().get(2);
+    byte[] key = expected.getTransactionId().getBytes();
+    // another transaction at the index, an index past the end, no index
+    for (int index : new int[] {0, 4, 5, 100, -1}) {
+      assertEquals(expected.getTransactionId(),
+          TransactionStore.findTransaction(block, key, index).getTransactionId());
+    }
+    assertNull(TransactionStore.findTransaction(block,
+        createTransaction(99).getTransactionId().getBytes(), 2));
+  }
+
+  private static BlockCapsule createBlock(int transactions) {
+    BlockCapsule block = new BlockCapsule(1, ByteString.copyFrom(new byte[32]), 1);
+    for (int i = 0; i < transactions; i++) {
+      block.addTransaction(createTransaction(i));
+    }
+    return block;
+  }
+
+  private static TransactionCapsule createTransaction(long expiration) {
+    return new TransactionCapsule(Transaction.newBuilder()
+        .setRawData(Transaction.raw.newBuilder()
+            .setExpiration(expiration)
+            .setData(ByteString.copyFromUtf8("transaction")))
+        .build());
+  }
+}
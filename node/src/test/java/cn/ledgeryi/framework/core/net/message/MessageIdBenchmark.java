@@ -0,0 +1,97 @@
+package cn.ledgeryi.framework.core.net.message;
+
+import cn.ledgeryi.chainbase.core.capsule.BlockCapsule;
+import cn.ledgeryi.protos.Protocol.Block;
+import cn.ledgeryi.protos.Protocol.BlockHeader;
+import cn.ledgeryi.protos.Protocol.Transaction;
+import com.google.protobuf.ByteString;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * A 2 MB block message as the key of the sync maps. The payload benchmarks do what hashCode and
+ * equals did before the id was cached.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MessageIdBenchmark {
+
+  private static final int BLOCK_SIZE = 2 * 1024 * 1024;
+
+  private BlockMessage message;
+  private BlockMessage other;
+  private final Map<BlockMessage, Long> blocks = new ConcurrentHashMap<>();
+
+  @Setup
+  public void setup() {
+    Block block = createBlock();
+    message = new BlockMessage(new BlockCapsule(block));
+    other = new BlockMessage(new BlockCapsule(block));
+  }
+
+  @Benchmark
+  public int hashCodeById() {
+    return message.hashCode();
+  }
+
+  @Benchmark
+  public boolean equalsById() {
+    return message.equals(other);
+  }
+
+  @Benchmark
+  public Long mapPutRemove() {
+    blocks.put(message, 1L);
+    return blocks.remove(other);
+  }
+
+  @Benchmark
+  public int hashCodeOfPayload() {
+    return Arrays.hashCode(message.getData());
+  }
+
+  @Benchmark
+  public boolean equalsOfPayload() {
+    return Arrays.equals(message.getData(), other.getData());
+  }
+
+  private static Block createBlock() {
+    int transactions = 32;
+    Random random = new Random(1);
+    Block.Builder block = Block.newBuilder().setBlockHeader(BlockHeader.newBuilder()
+        .setRawData(BlockHeader.raw.newBuilder().setNumber(1).setTimestamp(1)));
+    byte[] data = new byte[BLOCK_SIZE / transactions];
+    for (int i = 0; i < transactions; i++) {
+      random.nextBytes(data);
+      block.addTransactions(Transaction.newBuilder()
+          .setRawData(Transaction.raw.newBuilder().setData(ByteString.copyFrom(data))));
+    }
+    return block.build();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(MessageIdBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
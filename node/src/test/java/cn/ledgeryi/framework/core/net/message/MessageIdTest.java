@@ -0,0 +1,84 @@
+package cn.ledgeryi.framework.core.net.message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import cn.ledgeryi.chainbase.common.message.Message;
+import cn.ledgeryi.chainbase.core.capsule.BlockCapsule;
+import cn.ledgeryi.chainbase.core.store.DynamicPropertiesStore;
+import cn.ledgeryi.framework.common.overlay.message.PingMessage;
+import cn.ledgeryi.framework.common.overlay.message.PongMessage;
+import cn.ledgeryi.protos.Protocol.Block;
+import cn.ledgeryi.protos.Protocol.BlockHeader;
+import cn.ledgeryi.protos.Protocol.Transaction;
+import com.google.protobuf.ByteString;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * messages are equal when they have the same type and the same id.
+ */
+public class MessageIdTest {
+
+  @Before
+  public void init() {
+    // the proto filter is off, a mocked store answers 0
+    Message.setDynamicPropertiesStore(Mockito.mock(DynamicPropertiesStore.class));
+  }
+
+  @Test
+  public void pingIsNotPong() {
+    PingMessage ping = new PingMessage();
+    PongMessage pong = new PongMessage();
+    // same payload, so the same id
+    assertEquals(ping.getMessageId(), pong.getMessageId());
+    assertNotEquals(ping, pong);
+    assertNotEquals(pong, ping);
+    assertEquals(ping, new PingMessage());
+    assertEquals(ping.hashCode(), new PingMessage().hashCode());
+  }
+
+  @Test
+  public void blocksWithTheSameIdAreEqual() throws Exception {
+    Block block = createBlock(1, "a");
+    BlockMessage created = new BlockMessage(new BlockCapsule(block));
+    BlockMessage received = new BlockMessage(block.toByteArray());
+    assertEquals(created, received);
+    assertEquals(created.hashCode(), received.hashCode());
+
+    Set<Message> messages = new HashSet<>();
+    messages.add(created);
+    messages.add(received);
+    assertEquals(1, messages.size());
+
+    assertNotEquals(created, new BlockMessage(new BlockCapsule(createBlock(2, "a"))));
+  }
+
+  @Test
+  public void idIsCached() {
+    PingMessage ping = new PingMessage();
+    assertSame(ping.getMessageId(), ping.getMessageId());
+    TransactionMessage tx = new TransactionMessage(createTransaction("a"));
+    assertSame(tx.getMessageId(), tx.getMessageId());
+    BlockMessage block = new BlockMessage(new BlockCapsule(createBlock(1, "a")));
+    assertSame(block.getMessageId(), block.getMessageId());
+  }
+
+  private static Block createBlock(long number, String data) {
+    return Block.newBuilder()
+        .setBlockHeader(BlockHeader.newBuilder()
+            .setRawData(BlockHeader.raw.newBuilder().setNumber(number).setTimestamp(number)))
+        .addTransactions(createTransaction(data))
+        .build();
+  }
+
+  private static Transaction createTransaction(String data) {
+    return Transaction.newBuilder()
+        .setRawData(Transaction.raw.newBuilder().setData(ByteString.copyFromUtf8(data)))
+        .build();
+  }
+}